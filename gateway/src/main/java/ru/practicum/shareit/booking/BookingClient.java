@@ -2,46 +2,62 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.utils.BaseClient;
+import ru.practicum.shareit.utils.DownstreamGuards;
+import ru.practicum.shareit.utils.RequestCoalescer;
+import ru.practicum.shareit.utils.ResponseCache;
+import ru.practicum.shareit.utils.ServerTransportFactory;
 
+import java.io.OutputStream;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BookingClient extends BaseClient {
 
     private static final String API_PREFIX = "/bookings";
+    private static final String ITEMS = "/items";
+
+    private final ResponseCache responseCache;
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl,
+                         ServerTransportFactory transportFactory,
+                         RequestCoalescer requestCoalescer,
+                         DownstreamGuards downstreamGuards,
+                         ResponseCache responseCache) {
+        super(transportFactory.create(serverUrl + API_PREFIX), requestCoalescer, downstreamGuards.forRoute("bookings"));
+        this.responseCache = responseCache;
     }
 
-    public ResponseEntity<Object> createBooking(BookingDtoCreate bookingDtoCreate, long userId) {
-        return post("", userId, bookingDtoCreate);
+    public CompletableFuture<ResponseEntity<Object>> createBooking(BookingDtoCreate bookingDtoCreate, long userId) {
+        return responseCache.invalidateAfter(post("", userId, bookingDtoCreate),
+                ITEMS + "/" + bookingDtoCreate.getItemId());
     }
 
-    public ResponseEntity<Object> bookingApprove(long bookingId, long ownerId, boolean approved) {
+    public CompletableFuture<ResponseEntity<Object>> bookingApprove(long bookingId, long ownerId, boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
-        return patch("/" + bookingId + "?approved={approved}", ownerId, parameters, null);
+        return responseCache.invalidateAfter(patch("/" + bookingId + "?approved={approved}", ownerId, parameters, null),
+                ITEMS);
+    }
+
+    public void streamEvents(long userId, OutputStream out) {
+        stream("/events", userId, MediaType.TEXT_EVENT_STREAM, out);
     }
 
-    public ResponseEntity<Object> getBooking(long bookingId, long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getBooking(long bookingId, long userId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> findAllByParam(long userId, String state, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> findAllByParam(long userId,
+                                                                    String state,
+                                                                    Integer from,
+                                                                    Integer size) {
         Map<String, Object> parameters = Map.of(
                 "state", state,
                 "from", from,
@@ -50,7 +66,10 @@ public class BookingClient extends BaseClient {
         return get("?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> findAllByOwner(long userId, String state, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> findAllByOwner(long userId,
+                                                                    String state,
+                                                                    Integer from,
+                                                                    Integer size) {
         Map<String, Object> parameters = Map.of(
                 "state", state,
                 "from", from,
@@ -58,4 +77,28 @@ public class BookingClient extends BaseClient {
         );
         return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
     }
+
+    public CompletableFuture<ResponseEntity<Object>> findAllByParamAfter(long userId,
+                                                                         String state,
+                                                                         String after,
+                                                                         Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "after", after,
+                "size", size
+        );
+        return get("?state={state}&after={after}&size={size}", userId, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> findAllByOwnerAfter(long userId,
+                                                                         String state,
+                                                                         String after,
+                                                                         Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "after", after,
+                "size", size
+        );
+        return get("/owner?state={state}&after={after}&size={size}", userId, parameters);
+    }
 }
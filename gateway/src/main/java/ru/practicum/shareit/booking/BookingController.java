@@ -4,13 +4,18 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.utils.Create;
 import ru.practicum.shareit.utils.PageableMaker;
+import ru.practicum.shareit.utils.StreamRelay;
+
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -19,32 +24,41 @@ import ru.practicum.shareit.utils.PageableMaker;
 public class BookingController {
 
     private final BookingClient bookingClient;
+    private final StreamRelay streamRelay;
     private static final String SHARER_USER_ID = "X-Sharer-User-Id";
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(@RequestHeader(SHARER_USER_ID) long userId,
-                                                @Validated({Create.class}) @RequestBody BookingDtoCreate bookingDtoCreate) {
+    public CompletableFuture<ResponseEntity<Object>> createBooking(@RequestHeader(SHARER_USER_ID) long userId,
+                                                                   @Validated({Create.class}) @RequestBody BookingDtoCreate bookingDtoCreate) {
         return bookingClient.createBooking(bookingDtoCreate, userId);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> bookingApprove(@RequestHeader(SHARER_USER_ID) long ownerId,
-                                                 @PathVariable long bookingId,
-                                                 @RequestParam boolean approved) {
+    public CompletableFuture<ResponseEntity<Object>> bookingApprove(@RequestHeader(SHARER_USER_ID) long ownerId,
+                                                                    @PathVariable long bookingId,
+                                                                    @RequestParam boolean approved) {
         return bookingClient.bookingApprove(bookingId, ownerId, approved);
     }
 
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> subscribe(@RequestHeader(SHARER_USER_ID) long userId) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(streamRelay.relay(userId, out -> bookingClient.streamEvents(userId, out)));
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> findById(@RequestHeader(SHARER_USER_ID) long userId,
-                                           @PathVariable long bookingId) {
+    public CompletableFuture<ResponseEntity<Object>> findById(@RequestHeader(SHARER_USER_ID) long userId,
+                                                              @PathVariable long bookingId) {
         return bookingClient.getBooking(bookingId, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> findByParam(@RequestHeader(SHARER_USER_ID) long userId,
-                                              @RequestParam(required = false, defaultValue = "ALL") String state,
-                                              @RequestParam(required = false, defaultValue = "0") Integer from,
-                                              @RequestParam(required = false, defaultValue = "10") Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> findByParam(@RequestHeader(SHARER_USER_ID) long userId,
+                                                                 @RequestParam(required = false, defaultValue = "ALL") String state,
+                                                                 @RequestParam(required = false, defaultValue = "0") Integer from,
+                                                                 @RequestParam(required = false, defaultValue = "10") Integer size,
+                                                                 @RequestParam(required = false) String after) {
         Pageable pageable = PageableMaker.makePageable(from, size, Sort.by(Sort.Direction.DESC, "id"));
         BookingStatus status;
         try {
@@ -53,14 +67,17 @@ public class BookingController {
             throw new ValidationException("Unknown state: " + state);
         }
         log.info("{}, {}, {}, {}", userId, status, from, size);
+        if (after != null)
+            return bookingClient.findAllByParamAfter(userId, state, after, size);
         return bookingClient.findAllByParam(userId, state, from, size);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> findByOwner(@RequestHeader(SHARER_USER_ID) long userId,
-                                              @RequestParam(required = false, defaultValue = "ALL") String state,
-                                              @RequestParam(required = false, defaultValue = "0") Integer from,
-                                              @RequestParam(required = false, defaultValue = "10") Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> findByOwner(@RequestHeader(SHARER_USER_ID) long userId,
+                                                                 @RequestParam(required = false, defaultValue = "ALL") String state,
+                                                                 @RequestParam(required = false, defaultValue = "0") Integer from,
+                                                                 @RequestParam(required = false, defaultValue = "10") Integer size,
+                                                                 @RequestParam(required = false) String after) {
         Pageable pageable = PageableMaker.makePageable(from, size, Sort.by(Sort.Direction.DESC, "id"));
         BookingStatus status;
         try {
@@ -68,6 +85,8 @@ public class BookingController {
         } catch (IllegalArgumentException e) {
             throw new ValidationException("Unknown state: " + state);
         }
+        if (after != null)
+            return bookingClient.findAllByOwnerAfter(userId, state, after, size);
         return bookingClient.findAllByOwner(userId, state, from, size);
     }
 }
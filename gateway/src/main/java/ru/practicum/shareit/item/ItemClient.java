@@ -1,40 +1,49 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.utils.BaseClient;
+import ru.practicum.shareit.utils.DownstreamGuards;
+import ru.practicum.shareit.utils.RequestCoalescer;
+import ru.practicum.shareit.utils.ResponseCache;
+import ru.practicum.shareit.utils.ServerTransportFactory;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemClient extends BaseClient {
 
     private static final String API_PREFIX = "/items";
+    private static final String SEARCH = API_PREFIX + "/search";
+    private static final String REQUESTS = "/requests";
 
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    private final ResponseCache responseCache;
+
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl,
+                      ServerTransportFactory transportFactory,
+                      RequestCoalescer requestCoalescer,
+                      DownstreamGuards downstreamGuards,
+                      ResponseCache responseCache) {
+        super(transportFactory.create(serverUrl + API_PREFIX), requestCoalescer, downstreamGuards.forRoute("items"));
+        this.responseCache = responseCache;
     }
 
-    public ResponseEntity<Object> createItem(long userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
+    public CompletableFuture<ResponseEntity<Object>> createItem(long userId, ItemDto itemDto) {
+        if (itemDto.getRequestId() != null)
+            return responseCache.invalidateAfter(post("", userId, itemDto),
+                    SEARCH, REQUESTS + "/" + itemDto.getRequestId());
+        return responseCache.invalidateAfter(post("", userId, itemDto), SEARCH);
     }
 
-    public ResponseEntity<Object> getItem(int id, long userId) {
-        return get("/" + id, userId);
+    public CompletableFuture<ResponseEntity<Object>> getItem(int id, long userId) {
+        return responseCache.get(API_PREFIX + "/" + id, null, userId, () -> get("/" + id, userId));
     }
 
-    public ResponseEntity<Object> getAll(long userId,
-                                         Integer from,
-                                         Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getAll(long userId,
+                                                            Integer from,
+                                                            Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -42,20 +51,23 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> update(long userId, ItemDto itemDto, long itemId) {
-        return patch("/" + itemId, userId, itemDto);
+    public CompletableFuture<ResponseEntity<Object>> update(long userId, ItemDto itemDto, long itemId) {
+        return responseCache.invalidateAfter(patch("/" + itemId, userId, itemDto),
+                API_PREFIX + "/" + itemId, SEARCH, REQUESTS);
     }
 
-    public ResponseEntity<Object> getSearchResults(String text, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getSearchResults(String text, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", null, parameters);
+        return responseCache.get(SEARCH, parameters, null,
+                () -> get("/search?text={text}&from={from}&size={size}", null, parameters));
     }
 
-    public ResponseEntity<Object> postComment(long userId, long itemId, CommentDto commentDto) {
-        return post("/" + itemId + "/comment", userId, commentDto);
+    public CompletableFuture<ResponseEntity<Object>> postComment(long userId, long itemId, CommentDto commentDto) {
+        return responseCache.invalidateAfter(post("/" + itemId + "/comment", userId, commentDto),
+                API_PREFIX + "/" + itemId);
     }
 }
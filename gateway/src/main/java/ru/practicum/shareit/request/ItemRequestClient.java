@@ -2,47 +2,77 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.utils.BaseClient;
+import ru.practicum.shareit.utils.DownstreamGuards;
+import ru.practicum.shareit.utils.RequestCoalescer;
+import ru.practicum.shareit.utils.ResponseCache;
+import ru.practicum.shareit.utils.ServerTransportFactory;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemRequestClient extends BaseClient {
 
     private static final String API_PREFIX = "/requests";
 
+    private final ResponseCache responseCache;
+
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl,
+                             ServerTransportFactory transportFactory,
+                             RequestCoalescer requestCoalescer,
+                             DownstreamGuards downstreamGuards,
+                             ResponseCache responseCache) {
+        super(transportFactory.create(serverUrl + API_PREFIX), requestCoalescer, downstreamGuards.forRoute("requests"));
+        this.responseCache = responseCache;
     }
 
-    public ResponseEntity<Object> save(ItemRequestDto itemRequestDto, long userId) {
+    public CompletableFuture<ResponseEntity<Object>> save(ItemRequestDto itemRequestDto, long userId) {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> findAllByRequestorId(long userId) {
-        return get("/", userId);
+    public CompletableFuture<ResponseEntity<Object>> findAllByRequestorId(long userId, Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return get("?from={from}&size={size}", userId, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> findAllByRequestorIdAfter(long userId,
+                                                                               String after,
+                                                                               Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "after", after,
+                "size", size
+        );
+        return get("?after={after}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> findAllByParams(long userId, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> findAllByParams(long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("/all", userId, parameters);
+        return get("/all?from={from}&size={size}", userId, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> findAllByParamsAfter(long userId, String after, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "after", after,
+                "size", size
+        );
+        return get("/all?after={after}&size={size}", userId, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> findById(long userId, long requestId) {
+        return responseCache.get(API_PREFIX + "/" + requestId, null, userId, () -> get("/" + requestId, userId));
     }
 
-    public ResponseEntity<Object> findById(long userId, long requestId) {
-        return get("/" + requestId, userId);
+    public CompletableFuture<ResponseEntity<Object>> findMatches(long userId, long requestId) {
+        return get("/" + requestId + "/matches", userId);
     }
 }
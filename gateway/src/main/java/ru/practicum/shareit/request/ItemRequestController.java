@@ -11,6 +11,8 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.utils.Create;
 import ru.practicum.shareit.utils.PageableMaker;
 
+import java.util.concurrent.CompletableFuture;
+
 @Controller
 @RequestMapping(path = "/requests")
 @RequiredArgsConstructor
@@ -20,27 +22,42 @@ public class ItemRequestController {
     private static final String SHARER_USER_ID = "X-Sharer-User-Id";
 
     @PostMapping
-    public ResponseEntity<Object> save(@RequestHeader(SHARER_USER_ID) long userId,
-                                       @Validated({Create.class}) @RequestBody ItemRequestDto itemRequestDto) {
+    public CompletableFuture<ResponseEntity<Object>> save(@RequestHeader(SHARER_USER_ID) long userId,
+                                                          @Validated({Create.class}) @RequestBody ItemRequestDto itemRequestDto) {
         return itemRequestClient.save(itemRequestDto, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> findAllById(@RequestHeader(SHARER_USER_ID) long userId) {
-        return itemRequestClient.findAllByRequestorId(userId);
+    public CompletableFuture<ResponseEntity<Object>> findAllById(@RequestHeader(SHARER_USER_ID) long userId,
+                                                                 @RequestParam(required = false, defaultValue = "0") Integer from,
+                                                                 @RequestParam(required = false, defaultValue = "10") Integer size,
+                                                                 @RequestParam(required = false) String after) {
+        Pageable pageable = PageableMaker.makePageable(from, size, Sort.by(Sort.Direction.DESC, "created"));
+        if (after != null)
+            return itemRequestClient.findAllByRequestorIdAfter(userId, after, size);
+        return itemRequestClient.findAllByRequestorId(userId, from, size);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> findAllByParams(@RequestHeader(SHARER_USER_ID) long userId,
-                                                  @RequestParam(required = false, defaultValue = "0") Integer from,
-                                                  @RequestParam(required = false, defaultValue = "10") Integer size) {
-        Pageable pageable = PageableMaker.makePageable(from, size, Sort.by(Sort.Direction.ASC, "created"));
+    public CompletableFuture<ResponseEntity<Object>> findAllByParams(@RequestHeader(SHARER_USER_ID) long userId,
+                                                                     @RequestParam(required = false, defaultValue = "0") Integer from,
+                                                                     @RequestParam(required = false, defaultValue = "10") Integer size,
+                                                                     @RequestParam(required = false) String after) {
+        Pageable pageable = PageableMaker.makePageable(from, size, Sort.by(Sort.Direction.DESC, "created"));
+        if (after != null)
+            return itemRequestClient.findAllByParamsAfter(userId, after, size);
         return itemRequestClient.findAllByParams(userId, from, size);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> findById(@RequestHeader(SHARER_USER_ID) long userId,
-                                           @PathVariable long requestId) {
+    public CompletableFuture<ResponseEntity<Object>> findById(@RequestHeader(SHARER_USER_ID) long userId,
+                                                              @PathVariable long requestId) {
         return itemRequestClient.findById(userId, requestId);
     }
+
+    @GetMapping("/{requestId}/matches")
+    public CompletableFuture<ResponseEntity<Object>> findMatches(@RequestHeader(SHARER_USER_ID) long userId,
+                                                                 @PathVariable long requestId) {
+        return itemRequestClient.findMatches(userId, requestId);
+    }
 }
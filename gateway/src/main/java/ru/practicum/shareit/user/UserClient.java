@@ -1,43 +1,72 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.utils.BaseClient;
+import ru.practicum.shareit.utils.DownstreamGuards;
+import ru.practicum.shareit.utils.RequestCoalescer;
+import ru.practicum.shareit.utils.ResponseCache;
+import ru.practicum.shareit.utils.ServerTransportFactory;
+
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
 
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    private final ResponseCache responseCache;
+
+    public UserClient(@Value("${shareit-server.url}") String serverUrl,
+                      ServerTransportFactory transportFactory,
+                      RequestCoalescer requestCoalescer,
+                      DownstreamGuards downstreamGuards,
+                      ResponseCache responseCache) {
+        super(transportFactory.create(serverUrl + API_PREFIX), requestCoalescer, downstreamGuards.forRoute("users"));
+        this.responseCache = responseCache;
     }
 
-    public ResponseEntity<Object> createUser(UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> createUser(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> getUser(long id) {
+    public CompletableFuture<ResponseEntity<Object>> getUser(long id) {
         return get("/" + id);
     }
 
-    public ResponseEntity<Object> findAll() {
+    public CompletableFuture<ResponseEntity<Object>> findAll() {
         return get("");
     }
 
-    public ResponseEntity<Object> patchUser(long id, UserDto userDto) {
-        return patch("/" + id, userDto);
+    public CompletableFuture<ResponseEntity<Object>> findAll(Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return get("?from={from}&size={size}", null, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> findAllAfter(Long after, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "after", after,
+                "size", size
+        );
+        return get("?after={after}&size={size}", null, parameters);
+    }
+
+    public void streamAll(OutputStream out) {
+        stream("/stream", null, NDJSON, out);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> patchUser(long id, UserDto userDto) {
+        return responseCache.clearAfter(patch("/" + id, userDto));
     }
 
-    public ResponseEntity<Object> deleteUser(long id) {
-        return delete("/" + id);
+    public CompletableFuture<ResponseEntity<Object>> deleteUser(long id) {
+        return responseCache.clearAfter(delete("/" + id));
     }
 }
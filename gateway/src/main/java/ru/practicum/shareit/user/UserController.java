@@ -2,44 +2,69 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.utils.Create;
+import ru.practicum.shareit.utils.PageableMaker;
 import ru.practicum.shareit.utils.Update;
 
+import java.util.concurrent.CompletableFuture;
+
 @Controller
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
 @Slf4j
 public class UserController {
     private final UserClient userClient;
+    private static final int DEFAULT_PAGE_SIZE = 10;
 
     @PostMapping
-    public ResponseEntity<Object> create(@Validated({Create.class})
-                          @RequestBody UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> create(@Validated({Create.class})
+                                             @RequestBody UserDto userDto) {
         return userClient.createUser(userDto);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> read(@PathVariable long id) {
+    public CompletableFuture<ResponseEntity<Object>> read(@PathVariable long id) {
         return userClient.getUser(id);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
+    public CompletableFuture<ResponseEntity<Object>> getAll(@RequestParam(required = false) Integer from,
+                                                            @RequestParam(required = false) Integer size,
+                                                            @RequestParam(required = false) Long after) {
+        if (after != null) {
+            size = size == null ? DEFAULT_PAGE_SIZE : size;
+            PageableMaker.makePageable(0, size, Sort.by(Sort.Direction.ASC, "id"));
+            return userClient.findAllAfter(after, size);
+        }
+        if (size != null) {
+            from = from == null ? 0 : from;
+            PageableMaker.makePageable(from, size, Sort.by(Sort.Direction.ASC, "id"));
+            return userClient.findAll(from, size);
+        }
         return userClient.findAll();
     }
 
+    @GetMapping(path = "/stream")
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        return ResponseEntity.ok()
+                .contentType(UserClient.NDJSON)
+                .body(userClient::streamAll);
+    }
+
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> update(@PathVariable long id,
-                          @Validated({Update.class}) @RequestBody UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> update(@PathVariable long id,
+                                             @Validated({Update.class}) @RequestBody UserDto userDto) {
         return userClient.patchUser(id, userDto);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> delete(@PathVariable long id) {
+    public CompletableFuture<ResponseEntity<Object>> delete(@PathVariable long id) {
         return userClient.deleteUser(id);
     }
 }
\ No newline at end of file
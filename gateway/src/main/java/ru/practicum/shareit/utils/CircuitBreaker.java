@@ -0,0 +1,130 @@
+package ru.practicum.shareit.utils;
+
+/**
+ * Count-based circuit breaker: opens when the failure or slow call rate over the last
+ * {@code windowSize} calls crosses its threshold, lets {@code halfOpenCalls} trial calls
+ * through after {@code openDuration} and closes again only if they all stay under it.
+ * Every transition starts a new epoch; results of calls admitted in an earlier epoch are ignored.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    public static final long NOT_PERMITTED = -1;
+
+    private static final byte SUCCESS = 0;
+    private static final byte FAILURE = 1;
+    private static final byte SLOW = 2;
+
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final byte[] window;
+
+    private State state = State.CLOSED;
+    private long epoch;
+    private long openedAt;
+    private int position;
+    private int calls;
+    private int failures;
+    private int slowCalls;
+    private int halfOpenPermits;
+
+    public CircuitBreaker(DownstreamGuardProperties properties) {
+        this.minimumCalls = Math.min(properties.getMinimumCalls(), properties.getWindowSize());
+        this.failureRateThreshold = properties.getFailureRateThreshold();
+        this.slowCallRateThreshold = properties.getSlowCallRateThreshold();
+        this.openNanos = properties.getOpenDuration().toNanos();
+        this.halfOpenCalls = Math.min(properties.getHalfOpenCalls(), properties.getWindowSize());
+        this.window = new byte[properties.getWindowSize()];
+    }
+
+    /**
+     * @return epoch to pass to {@link #onResult} if the call is permitted, otherwise {@link #NOT_PERMITTED}
+     */
+    public synchronized long tryAcquirePermission(long now) {
+        if (state == State.OPEN && now - openedAt >= openNanos)
+            transitionTo(State.HALF_OPEN, now);
+
+        switch (state) {
+            case CLOSED:
+                return epoch;
+            case HALF_OPEN:
+                if (halfOpenPermits == 0)
+                    return NOT_PERMITTED;
+                halfOpenPermits--;
+                return epoch;
+            default:
+                return NOT_PERMITTED;
+        }
+    }
+
+    public synchronized void onResult(long callEpoch, boolean failure, boolean slow, long now) {
+        if (callEpoch != epoch || state == State.OPEN)
+            return;
+
+        record(failure ? FAILURE : slow ? SLOW : SUCCESS);
+        if (state == State.HALF_OPEN) {
+            if (calls == halfOpenCalls)
+                transitionTo(isOverThreshold() ? State.OPEN : State.CLOSED, now);
+        } else if (calls >= minimumCalls && isOverThreshold()) {
+            transitionTo(State.OPEN, now);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized long getRemainingOpenNanos(long now) {
+        return state == State.OPEN ? Math.max(0, openedAt + openNanos - now) : 0;
+    }
+
+    public synchronized int getFailureRate() {
+        return calls == 0 ? 0 : failures * 100 / calls;
+    }
+
+    public synchronized int getSlowCallRate() {
+        return calls == 0 ? 0 : slowCalls * 100 / calls;
+    }
+
+    private boolean isOverThreshold() {
+        return failures * 100 >= failureRateThreshold * calls || slowCalls * 100 >= slowCallRateThreshold * calls;
+    }
+
+    private void record(byte outcome) {
+        if (calls == window.length) {
+            forget(window[position]);
+        } else {
+            calls++;
+        }
+        window[position] = outcome;
+        position = (position + 1) % window.length;
+        if (outcome == FAILURE)
+            failures++;
+        else if (outcome == SLOW)
+            slowCalls++;
+    }
+
+    private void forget(byte outcome) {
+        if (outcome == FAILURE)
+            failures--;
+        else if (outcome == SLOW)
+            slowCalls--;
+    }
+
+    private void transitionTo(State newState, long now) {
+        state = newState;
+        epoch++;
+        openedAt = now;
+        position = 0;
+        calls = 0;
+        failures = 0;
+        slowCalls = 0;
+        halfOpenPermits = newState == State.HALF_OPEN ? halfOpenCalls : 0;
+    }
+}
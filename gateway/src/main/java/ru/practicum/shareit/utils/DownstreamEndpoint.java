@@ -0,0 +1,38 @@
+package ru.practicum.shareit.utils;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Component
+@Endpoint(id = "downstream")
+public class DownstreamEndpoint {
+
+    private final DownstreamGuards downstreamGuards;
+
+    public DownstreamEndpoint(DownstreamGuards downstreamGuards) {
+        this.downstreamGuards = downstreamGuards;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> routes() {
+        long now = System.nanoTime();
+        Map<String, Map<String, Object>> routes = new TreeMap<>();
+        for (DownstreamGuard guard : downstreamGuards.getAll()) {
+            CircuitBreaker circuitBreaker = guard.getCircuitBreaker();
+            Map<String, Object> route = new TreeMap<>();
+            route.put("state", circuitBreaker.getState());
+            route.put("failureRate", circuitBreaker.getFailureRate());
+            route.put("slowCallRate", circuitBreaker.getSlowCallRate());
+            route.put("remainingOpen", Duration.ofNanos(circuitBreaker.getRemainingOpenNanos(now)).toString());
+            route.put("inFlightCalls", guard.getInFlightCalls());
+            route.put("maxConcurrentCalls", guard.getMaxConcurrentCalls());
+            routes.put(guard.getRoute(), route);
+        }
+        return routes;
+    }
+}
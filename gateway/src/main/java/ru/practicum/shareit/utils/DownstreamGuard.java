@@ -0,0 +1,127 @@
+package ru.practicum.shareit.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker and bulkhead in front of one downstream route: calls fail fast with
+ * {@link ServiceUnavailableException} while the breaker is open or all slots are taken.
+ */
+public class DownstreamGuard {
+
+    /**
+     * Set by the server on the 503 it returns when it sheds load on purpose.
+     */
+    static final String LOAD_SHED_HEADER = "X-Load-Shed";
+
+    private final String route;
+    private final CircuitBreaker circuitBreaker;
+    private final Semaphore bulkhead;
+    private final int maxConcurrentCalls;
+    private final long slowCallNanos;
+    private final Counter successes;
+    private final Counter failures;
+    private final Counter slowCalls;
+    private final Counter notPermitted;
+    private final Counter bulkheadFull;
+    private final Counter shed;
+
+    public DownstreamGuard(String route, DownstreamGuardProperties properties, MeterRegistry meterRegistry) {
+        this.route = route;
+        this.circuitBreaker = new CircuitBreaker(properties);
+        this.maxConcurrentCalls = properties.getMaxConcurrentCalls()
+                .getOrDefault(route, properties.getDefaultMaxConcurrentCalls());
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.slowCallNanos = properties.getSlowCallDuration().toNanos();
+        this.successes = calls(meterRegistry, "success");
+        this.failures = calls(meterRegistry, "failure");
+        this.slowCalls = calls(meterRegistry, "slow");
+        this.notPermitted = calls(meterRegistry, "not-permitted");
+        this.bulkheadFull = calls(meterRegistry, "bulkhead-full");
+        this.shed = calls(meterRegistry, "shed");
+        Gauge.builder("shareit.gateway.downstream.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .tag("route", route)
+                .description("0 - closed, 1 - open, 2 - half-open")
+                .register(meterRegistry);
+        Gauge.builder("shareit.gateway.downstream.in-flight", this, DownstreamGuard::getInFlightCalls)
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> execute(Supplier<CompletableFuture<ResponseEntity<Object>>> call) {
+        if (!bulkhead.tryAcquire()) {
+            bulkheadFull.increment();
+            return CompletableFuture.failedFuture(
+                    new ServiceUnavailableException("Сервис " + route + " перегружен, повторите позже!"));
+        }
+        long epoch = circuitBreaker.tryAcquirePermission(System.nanoTime());
+        if (epoch == CircuitBreaker.NOT_PERMITTED) {
+            bulkhead.release();
+            notPermitted.increment();
+            return CompletableFuture.failedFuture(
+                    new ServiceUnavailableException("Сервис " + route + " временно недоступен!"));
+        }
+
+        long started = System.nanoTime();
+        CompletableFuture<ResponseEntity<Object>> result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        return result.whenComplete((response, e) -> {
+            bulkhead.release();
+            long now = System.nanoTime();
+            // A shed request means the server is protecting itself, not failing. Opening the breaker on it
+            // would also cut off the load the server still accepts.
+            boolean loadShed = e == null && isLoadShed(response);
+            boolean failure = !loadShed && (e != null || response.getStatusCode().is5xxServerError());
+            boolean slow = now - started >= slowCallNanos;
+            circuitBreaker.onResult(epoch, failure, slow, now);
+            if (loadShed)
+                shed.increment();
+            else if (failure)
+                failures.increment();
+            else if (slow)
+                slowCalls.increment();
+            else
+                successes.increment();
+        });
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    public int getInFlightCalls() {
+        return maxConcurrentCalls - bulkhead.availablePermits();
+    }
+
+    private static boolean isLoadShed(ResponseEntity<Object> response) {
+        return response.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE
+                && "true".equals(response.getHeaders().getFirst(LOAD_SHED_HEADER));
+    }
+
+    private Counter calls(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("shareit.gateway.downstream.calls")
+                .tag("route", route)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.utils;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties("shareit-gateway.downstream")
+public class DownstreamGuardProperties {
+
+    private int windowSize = 50;
+
+    private int minimumCalls = 20;
+
+    private int failureRateThreshold = 50;
+
+    private int slowCallRateThreshold = 80;
+
+    private Duration slowCallDuration = Duration.ofSeconds(2);
+
+    private Duration openDuration = Duration.ofSeconds(10);
+
+    private int halfOpenCalls = 5;
+
+    private int defaultMaxConcurrentCalls = 50;
+
+    private Map<String, Integer> maxConcurrentCalls = new HashMap<>();
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.utils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+@Component
+@EnableConfigurationProperties(DownstreamGuardProperties.class)
+public class DownstreamGuards {
+
+    private final DownstreamGuardProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, DownstreamGuard> guards = new ConcurrentHashMap<>();
+
+    public DownstreamGuards(DownstreamGuardProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public DownstreamGuard forRoute(String route) {
+        return guards.computeIfAbsent(route, name -> new DownstreamGuard(name, properties, meterRegistry));
+    }
+
+    public Collection<DownstreamGuard> getAll() {
+        return guards.values();
+    }
+}
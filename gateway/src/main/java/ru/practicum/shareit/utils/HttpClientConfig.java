@@ -0,0 +1,102 @@
+package ru.practicum.shareit.utils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@Profile("!reactive")
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class HttpClientConfig {
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager shareItConnectionManager(HttpClientProperties properties,
+                                                                      MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(properties.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxPerRoute());
+        connectionManager.setValidateAfterInactivity((int) properties.getValidateAfterInactivity().toMillis());
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "shareit-server").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient shareItHttpClient(PoolingHttpClientConnectionManager shareItConnectionManager,
+                                                 HttpClientProperties properties) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                .setSocketTimeout((int) properties.getReadTimeout().toMillis())
+                .setConnectionRequestTimeout((int) properties.getAcquireTimeout().toMillis())
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(shareItConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(properties.getIdleTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager shareItStreamConnectionManager(HttpClientProperties properties,
+                                                                            MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(properties.getStreams().getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(properties.getStreams().getMaxConnections());
+        connectionManager.setValidateAfterInactivity((int) properties.getValidateAfterInactivity().toMillis());
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "shareit-server-streams")
+                .bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient shareItStreamHttpClient(PoolingHttpClientConnectionManager shareItStreamConnectionManager,
+                                                       HttpClientProperties properties) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                .setSocketTimeout((int) properties.getStreams().getReadTimeout().toMillis())
+                .setConnectionRequestTimeout((int) properties.getAcquireTimeout().toMillis())
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(shareItStreamConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .build();
+    }
+
+    @Bean
+    public ClientHttpRequestFactory shareItRequestFactory(CloseableHttpClient shareItHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(shareItHttpClient);
+    }
+
+    @Bean
+    public ClientHttpRequestFactory shareItStreamRequestFactory(CloseableHttpClient shareItStreamHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(shareItStreamHttpClient);
+    }
+
+    @Bean
+    public ServerTransportFactory restTemplateTransportFactory(RestTemplateBuilder builder,
+                                                               ClientHttpRequestFactory shareItRequestFactory,
+                                                               ClientHttpRequestFactory shareItStreamRequestFactory) {
+        return baseUrl -> new RestTemplateTransport(
+                builder.uriTemplateHandler(new DefaultUriBuilderFactory(baseUrl))
+                        .requestFactory(() -> shareItRequestFactory)
+                        .build(),
+                builder.uriTemplateHandler(new DefaultUriBuilderFactory(baseUrl))
+                        .requestFactory(() -> shareItStreamRequestFactory)
+                        .build());
+    }
+}
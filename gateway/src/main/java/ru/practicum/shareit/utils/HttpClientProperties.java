@@ -0,0 +1,40 @@
+package ru.practicum.shareit.utils;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties("shareit-server.http")
+public class HttpClientProperties {
+
+    private int maxTotal = 200;
+
+    private int maxPerRoute = 100;
+
+    private int maxPending = 1000;
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(30);
+
+    private Duration acquireTimeout = Duration.ofMillis(500);
+
+    private Duration idleTimeout = Duration.ofSeconds(30);
+
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    private Streams streams = new Streams();
+
+    @Getter
+    @Setter
+    public static class Streams {
+
+        private int maxConnections = 100;
+
+        private Duration readTimeout = Duration.ofSeconds(45);
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.utils;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private static final String SHARER_USER_ID = "X-Sharer-User-Id";
+
+    private final TokenBucketRateLimiter rateLimiter;
+
+    public RateLimitInterceptor(TokenBucketRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST)
+            return true;
+
+        Long userId = userId(request.getHeader(SHARER_USER_ID));
+        if (userId == null)
+            return true;
+
+        long waitNanos = rateLimiter.tryAcquire(route(request), userId);
+        if (waitNanos > 0) {
+            long retryAfterSeconds = TimeUnit.NANOSECONDS.toSeconds(waitNanos - 1) + 1;
+            throw new TooManyRequestsException("Слишком много запросов, повторите позже!", retryAfterSeconds);
+        }
+        return true;
+    }
+
+    private static Long userId(String header) {
+        if (header == null)
+            return null;
+
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String route(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        int start = path.startsWith("/") ? 1 : 0;
+        int end = path.indexOf('/', start);
+        return end < 0 ? path.substring(start) : path.substring(start, end);
+    }
+}
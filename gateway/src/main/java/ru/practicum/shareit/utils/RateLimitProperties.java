@@ -0,0 +1,34 @@
+package ru.practicum.shareit.utils;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties("shareit-gateway.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    private int maxBuckets = 100_000;
+
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    private Quota defaultQuota = new Quota();
+
+    private Map<String, Quota> routes = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Quota {
+
+        private int capacity = 20;
+
+        private double refillPerSecond = 10;
+    }
+}
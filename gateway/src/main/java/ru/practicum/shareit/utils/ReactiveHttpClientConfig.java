@@ -0,0 +1,73 @@
+package ru.practicum.shareit.utils;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class ReactiveHttpClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareItConnectionProvider(HttpClientProperties properties) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(properties.getMaxPerRoute())
+                .pendingAcquireMaxCount(properties.getMaxPending())
+                .pendingAcquireTimeout(properties.getAcquireTimeout())
+                .maxIdleTime(properties.getIdleTimeout())
+                .evictInBackground(properties.getIdleTimeout())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareItStreamConnectionProvider(HttpClientProperties properties) {
+        return ConnectionProvider.builder("shareit-server-streams")
+                .maxConnections(properties.getStreams().getMaxConnections())
+                .pendingAcquireMaxCount(properties.getMaxPending())
+                .pendingAcquireTimeout(properties.getAcquireTimeout())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public ReactorClientHttpConnector shareItClientConnector(ConnectionProvider shareItConnectionProvider,
+                                                             HttpClientProperties properties) {
+        HttpClient httpClient = HttpClient.create(shareItConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout());
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
+    @Bean
+    public ReactorClientHttpConnector shareItStreamClientConnector(ConnectionProvider shareItStreamConnectionProvider,
+                                                                   HttpClientProperties properties) {
+        HttpClient httpClient = HttpClient.create(shareItStreamConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getStreams().getReadTimeout());
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
+    @Bean
+    public ServerTransportFactory webClientTransportFactory(WebClient.Builder builder,
+                                                            ReactorClientHttpConnector shareItClientConnector,
+                                                            ReactorClientHttpConnector shareItStreamClientConnector) {
+        return baseUrl -> new WebClientTransport(
+                builder.clone()
+                        .clientConnector(shareItClientConnector)
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(baseUrl))
+                        .build(),
+                builder.clone()
+                        .clientConnector(shareItStreamClientConnector)
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(baseUrl))
+                        .build());
+    }
+}
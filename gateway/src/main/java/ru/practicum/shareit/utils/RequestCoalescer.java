@@ -0,0 +1,93 @@
+package ru.practicum.shareit.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+@Component
+public class RequestCoalescer {
+
+    private final ConcurrentMap<Key, CompletableFuture<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+
+    public RequestCoalescer(MeterRegistry meterRegistry) {
+        this.leaders = Counter.builder("shareit.gateway.coalescing").tag("role", "leader").register(meterRegistry);
+        this.followers = Counter.builder("shareit.gateway.coalescing").tag("role", "follower").register(meterRegistry);
+        Gauge.builder("shareit.gateway.coalescing.in-flight", inFlight, Map::size).register(meterRegistry);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> execute(Object scope,
+                                                             String path,
+                                                             @Nullable Map<String, Object> parameters,
+                                                             @Nullable Long userId,
+                                                             Supplier<CompletableFuture<ResponseEntity<Object>>> call) {
+        Key key = Key.of(scope, path, parameters, userId);
+        CompletableFuture<ResponseEntity<Object>> promise = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> existing = inFlight.putIfAbsent(key, promise);
+        if (existing != null) {
+            followers.increment();
+            return existing;
+        }
+
+        leaders.increment();
+        try {
+            call.get().whenComplete((response, e) -> {
+                inFlight.remove(key, promise);
+                if (e != null)
+                    promise.completeExceptionally(e);
+                else
+                    promise.complete(response);
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, promise);
+            promise.completeExceptionally(e);
+        }
+        return promise;
+    }
+
+    private static class Key {
+        private final Object scope;
+        private final String path;
+        private final String query;
+        private final Long userId;
+
+        private Key(Object scope, String path, String query, Long userId) {
+            this.scope = scope;
+            this.path = path;
+            this.query = query;
+            this.userId = userId;
+        }
+
+        static Key of(Object scope, String path, @Nullable Map<String, Object> parameters, @Nullable Long userId) {
+            return new Key(scope, path, parameters == null ? "" : new TreeMap<>(parameters).toString(), userId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return scope == key.scope
+                    && path.equals(key.path)
+                    && query.equals(key.query)
+                    && Objects.equals(userId, key.userId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(scope), path, query, userId);
+        }
+    }
+}
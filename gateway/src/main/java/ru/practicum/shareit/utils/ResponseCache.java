@@ -0,0 +1,150 @@
+package ru.practicum.shareit.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+@Component
+public class ResponseCache {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Map<Key, Entry> entries;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private long generation;
+
+    public ResponseCache(MeterRegistry meterRegistry,
+                         @Value("${shareit-gateway.response-cache.max-size:1000}") int maxSize,
+                         @Value("${shareit-gateway.response-cache.ttl-ms:5000}") long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.hits = Counter.builder("shareit.gateway.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("shareit.gateway.cache").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("shareit.gateway.cache.evictions").register(meterRegistry);
+        Gauge.builder("shareit.gateway.cache.size", this, ResponseCache::size).register(meterRegistry);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> get(String resource,
+                                                         @Nullable Map<String, Object> parameters,
+                                                         @Nullable Long userId,
+                                                         Supplier<CompletableFuture<ResponseEntity<Object>>> loader) {
+        Key key = Key.of(resource, parameters, userId);
+        long loadGeneration;
+
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && !entry.isExpired(System.currentTimeMillis())) {
+                hits.increment();
+                return CompletableFuture.completedFuture(entry.response);
+            }
+            if (entry != null)
+                entries.remove(key);
+            misses.increment();
+            loadGeneration = generation;
+        }
+
+        return loader.get().thenApply(response -> {
+            if (response.getStatusCode().is2xxSuccessful())
+                put(key, response, loadGeneration);
+            return response;
+        });
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> invalidateAfter(CompletableFuture<ResponseEntity<Object>> write,
+                                                                     String... resources) {
+        return write.whenComplete((response, e) -> {
+            for (String resource : resources)
+                invalidate(resource);
+        });
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> clearAfter(CompletableFuture<ResponseEntity<Object>> write) {
+        return write.whenComplete((response, e) -> clear());
+    }
+
+    public synchronized void invalidate(String resource) {
+        generation++;
+        String nested = resource + "/";
+        entries.keySet().removeIf(key -> key.resource.equals(resource) || key.resource.startsWith(nested));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    private synchronized void put(Key key, ResponseEntity<Object> response, long loadGeneration) {
+        if (loadGeneration != generation)
+            return;
+
+        entries.put(key, new Entry(response, System.currentTimeMillis() + ttlMillis));
+        Iterator<Key> eldest = entries.keySet().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private static class Key {
+        private final String resource;
+        private final String query;
+        private final Long userId;
+
+        private Key(String resource, String query, Long userId) {
+            this.resource = resource;
+            this.query = query;
+            this.userId = userId;
+        }
+
+        static Key of(String resource, @Nullable Map<String, Object> parameters, @Nullable Long userId) {
+            return new Key(resource, parameters == null ? "" : new TreeMap<>(parameters).toString(), userId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return resource.equals(key.resource) && query.equals(key.query) && Objects.equals(userId, key.userId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(resource, query, userId);
+        }
+    }
+
+    private static class Entry {
+        private final ResponseEntity<Object> response;
+        private final long expiresAt;
+
+        Entry(ResponseEntity<Object> response, long expiresAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
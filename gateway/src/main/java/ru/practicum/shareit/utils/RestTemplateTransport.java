@@ -0,0 +1,63 @@
+package ru.practicum.shareit.utils;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class RestTemplateTransport implements ServerTransport {
+    private static final int STREAM_BUFFER_SIZE = 4096;
+
+    private final RestTemplate rest;
+    private final RestTemplate streamRest;
+
+    public RestTemplateTransport(RestTemplate rest, RestTemplate streamRest) {
+        this.rest = rest;
+        this.streamRest = streamRest;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method,
+                                                              String path,
+                                                              HttpHeaders headers,
+                                                              @Nullable Map<String, Object> parameters,
+                                                              @Nullable Object body) {
+        HttpEntity<Object> requestEntity = new HttpEntity<>(body, headers);
+
+        ResponseEntity<byte[]> shareitServerResponse;
+        try {
+            if (parameters != null) {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
+            } else {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
+            }
+        } catch (HttpStatusCodeException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(e.getRawStatusCode())
+                    .headers(e.getResponseHeaders())
+                    .body(e.getResponseBodyAsByteArray()));
+        }
+        return CompletableFuture.completedFuture(shareitServerResponse);
+    }
+
+    @Override
+    public void stream(String path, HttpHeaders headers, OutputStream out) {
+        streamRest.execute(path, HttpMethod.GET, request -> request.getHeaders().putAll(headers), response -> {
+            InputStream in = response.getBody();
+            byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                out.flush();
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.utils;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public interface ServerTransport {
+
+    CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method,
+                                                       String path,
+                                                       HttpHeaders headers,
+                                                       @Nullable Map<String, Object> parameters,
+                                                       @Nullable Object body);
+
+    void stream(String path, HttpHeaders headers, OutputStream out);
+}
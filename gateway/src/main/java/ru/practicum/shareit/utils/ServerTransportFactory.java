@@ -0,0 +1,6 @@
+package ru.practicum.shareit.utils;
+
+public interface ServerTransportFactory {
+
+    ServerTransport create(String baseUrl);
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.utils;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Relays long-lived server streams to clients on dedicated threads, each with its own async timeout, so the short
+ * spring.mvc.async.request-timeout keeps applying to every other async request.
+ */
+@Component
+public class StreamRelay {
+
+    private final StreamSubscriptions streamSubscriptions;
+    private final long timeoutMillis;
+    private final ExecutorService executor;
+
+    @Autowired
+    public StreamRelay(StreamSubscriptions streamSubscriptions,
+                       @Value("${shareit-gateway.streams.timeout-ms:1800000}") long timeoutMillis,
+                       @Value("${shareit-server.http.streams.max-connections:100}") int maxStreams) {
+        this(streamSubscriptions, timeoutMillis, new ThreadPoolExecutor(0, maxStreams, 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), new CustomizableThreadFactory("shareit-stream-")));
+    }
+
+    StreamRelay(StreamSubscriptions streamSubscriptions, long timeoutMillis, ExecutorService executor) {
+        this.streamSubscriptions = streamSubscriptions;
+        this.timeoutMillis = timeoutMillis;
+        this.executor = executor;
+    }
+
+    public ResponseBodyEmitter relay(long userId, Consumer<OutputStream> source) {
+        streamSubscriptions.open(userId);
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeoutMillis);
+        try {
+            executor.execute(() -> copy(userId, source, emitter));
+        } catch (RejectedExecutionException e) {
+            streamSubscriptions.close(userId);
+            throw new ServiceUnavailableException("Слишком много открытых подписок, повторите позже!");
+        }
+        return emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void copy(long userId, Consumer<OutputStream> source, ResponseBodyEmitter emitter) {
+        try {
+            source.accept(new EmitterOutputStream(emitter));
+            emitter.complete();
+        } catch (RuntimeException e) {
+            emitter.completeWithError(e);
+        } finally {
+            streamSubscriptions.close(userId);
+        }
+    }
+
+    private static class EmitterOutputStream extends OutputStream {
+        private final ResponseBodyEmitter emitter;
+
+        EmitterOutputStream(ResponseBodyEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            try {
+                emitter.send(Arrays.copyOfRange(b, off, off + len), MediaType.TEXT_EVENT_STREAM);
+            } catch (IllegalStateException e) {
+                // The emitter is already complete, e.g. timed out: stop reading from the server.
+                throw new IOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+@Component
+public class StreamSubscriptions {
+
+    private final int maxPerUser;
+    private final long retryAfterSeconds;
+    private final ConcurrentMap<Long, Integer> openByUser = new ConcurrentHashMap<>();
+    private final Counter rejected;
+
+    public StreamSubscriptions(MeterRegistry meterRegistry,
+                               @Value("${shareit-gateway.streams.max-per-user:3}") int maxPerUser,
+                               @Value("${shareit-gateway.streams.retry-after-seconds:15}") long retryAfterSeconds) {
+        this.maxPerUser = maxPerUser;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.rejected = Counter.builder("shareit.gateway.streams.rejected").register(meterRegistry);
+        Gauge.builder("shareit.gateway.streams.users", openByUser, Map::size).register(meterRegistry);
+    }
+
+    public void open(long userId) {
+        boolean[] admitted = new boolean[1];
+        openByUser.compute(userId, (id, open) -> {
+            int current = open == null ? 0 : open;
+            admitted[0] = current < maxPerUser;
+            return admitted[0] ? current + 1 : open;
+        });
+        if (!admitted[0]) {
+            rejected.increment();
+            throw new TooManyRequestsException("Слишком много открытых подписок!", retryAfterSeconds);
+        }
+    }
+
+    public void close(long userId) {
+        openByUser.computeIfPresent(userId, (id, open) -> open > 1 ? open - 1 : null);
+    }
+}
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket per user and route, stored as a single theoretical arrival time (GCRA):
+ * a request is admitted while the bucket still holds a token, i.e. {@code now >= tat - tolerance}.
+ * A bucket whose arrival time is in the past is full, so dropping it loses nothing; only such
+ * buckets are evicted to make room, and a new user is rejected while a stripe holds only active ones.
+ */
+public class TokenBucketRateLimiter {
+    private static final int STRIPES = 16;
+    private static final String DEFAULT_ROUTE = "default";
+
+    private final Map<String, Route> routes = new HashMap<>();
+    private final Route defaultRoute;
+    private final long idleNanos;
+
+    public TokenBucketRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.idleNanos = properties.getIdleTimeout().toNanos();
+        int maxBucketsPerStripe = Math.max(1, properties.getMaxBuckets() / STRIPES);
+        this.defaultRoute = new Route(DEFAULT_ROUTE, properties.getDefaultQuota(), maxBucketsPerStripe, meterRegistry);
+        properties.getRoutes().forEach((name, quota) ->
+                routes.put(name, new Route(name, quota, maxBucketsPerStripe, meterRegistry)));
+        Gauge.builder("shareit.gateway.rate-limit.buckets", this, TokenBucketRateLimiter::size).register(meterRegistry);
+    }
+
+    /**
+     * @return 0 if the request is admitted, otherwise nanoseconds until the next token
+     */
+    public long tryAcquire(String route, long userId) {
+        return tryAcquire(route, userId, System.nanoTime());
+    }
+
+    long tryAcquire(String route, long userId, long now) {
+        return routes.getOrDefault(route, defaultRoute).tryAcquire(userId, now);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit-gateway.rate-limit.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        evictIdle(System.nanoTime());
+    }
+
+    void evictIdle(long now) {
+        defaultRoute.evictIdle(now);
+        routes.values().forEach(route -> route.evictIdle(now));
+    }
+
+    public int size() {
+        int size = defaultRoute.size();
+        for (Route route : routes.values())
+            size += route.size();
+        return size;
+    }
+
+    private final class Route {
+        private final long interval;
+        private final long tolerance;
+        private final int maxBucketsPerStripe;
+        private final ConcurrentMap<Long, AtomicLong>[] stripes;
+        private final Counter allowed;
+        private final Counter rejected;
+
+        @SuppressWarnings("unchecked")
+        Route(String name, RateLimitProperties.Quota quota, int maxBucketsPerStripe, MeterRegistry meterRegistry) {
+            if (quota.getCapacity() < 1 || quota.getRefillPerSecond() <= 0)
+                throw new IllegalArgumentException("Некорректная квота для маршрута " + name);
+
+            this.interval = (long) (TimeUnit.SECONDS.toNanos(1) / quota.getRefillPerSecond());
+            this.tolerance = interval * (quota.getCapacity() - 1);
+            this.maxBucketsPerStripe = maxBucketsPerStripe;
+            this.stripes = new ConcurrentMap[STRIPES];
+            for (int i = 0; i < STRIPES; i++)
+                stripes[i] = new ConcurrentHashMap<>();
+            this.allowed = Counter.builder("shareit.gateway.rate-limit")
+                    .tag("route", name).tag("result", "allowed").register(meterRegistry);
+            this.rejected = Counter.builder("shareit.gateway.rate-limit")
+                    .tag("route", name).tag("result", "rejected").register(meterRegistry);
+        }
+
+        long tryAcquire(long userId, long now) {
+            AtomicLong tat = bucket(userId, now);
+            if (tat == null) {
+                rejected.increment();
+                return interval;
+            }
+            while (true) {
+                long current = tat.get();
+                long admitFrom = current - tolerance;
+                if (now - admitFrom < 0) {
+                    rejected.increment();
+                    return admitFrom - now;
+                }
+                if (tat.compareAndSet(current, Math.max(current - now, 0) + now + interval)) {
+                    allowed.increment();
+                    return 0;
+                }
+            }
+        }
+
+        void evictIdle(long now) {
+            for (ConcurrentMap<Long, AtomicLong> stripe : stripes)
+                evictIdle(stripe, now);
+        }
+
+        int size() {
+            int size = 0;
+            for (ConcurrentMap<Long, AtomicLong> stripe : stripes)
+                size += stripe.size();
+            return size;
+        }
+
+        @Nullable
+        private AtomicLong bucket(long userId, long now) {
+            ConcurrentMap<Long, AtomicLong> stripe = stripes[stripe(userId)];
+            AtomicLong tat = stripe.get(userId);
+            if (tat != null)
+                return tat;
+
+            if (stripe.size() >= maxBucketsPerStripe && !makeRoom(stripe, now))
+                return null;
+            return stripe.computeIfAbsent(userId, id -> new AtomicLong(now));
+        }
+
+        private boolean makeRoom(ConcurrentMap<Long, AtomicLong> stripe, long now) {
+            stripe.values().removeIf(tat -> now - tat.get() >= 0);
+            return stripe.size() < maxBucketsPerStripe;
+        }
+
+        private void evictIdle(ConcurrentMap<Long, AtomicLong> stripe, long now) {
+            stripe.values().removeIf(tat -> now - tat.get() >= idleNanos);
+        }
+
+        private int stripe(long userId) {
+            long hash = userId * 0x9E3779B97F4A7C15L;
+            return (int) (hash >>> 60) & (STRIPES - 1);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.utils;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class WebClientTransport implements ServerTransport {
+
+    private final WebClient web;
+    private final WebClient streamWeb;
+
+    public WebClientTransport(WebClient web, WebClient streamWeb) {
+        this.web = web;
+        this.streamWeb = streamWeb;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method,
+                                                              String path,
+                                                              HttpHeaders headers,
+                                                              @Nullable Map<String, Object> parameters,
+                                                              @Nullable Object body) {
+        WebClient.RequestBodySpec request = web.method(method)
+                .uri(path, parameters != null ? parameters : Collections.emptyMap())
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+        WebClient.RequestHeadersSpec<?> requestWithBody = body != null ? request.bodyValue(body) : request;
+
+        return requestWithBody.exchangeToMono(response -> response.toEntity(byte[].class)).toFuture();
+    }
+
+    @Override
+    public void stream(String path, HttpHeaders headers, OutputStream out) {
+        Iterable<DataBuffer> chunks = streamWeb.get()
+                .uri(path)
+                .headers(requestHeaders -> requestHeaders.addAll(headers))
+                .retrieve()
+                .bodyToFlux(DataBuffer.class)
+                .toIterable(1);
+
+        try {
+            for (DataBuffer chunk : chunks) {
+                try (InputStream in = chunk.asInputStream(true)) {
+                    in.transferTo(out);
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
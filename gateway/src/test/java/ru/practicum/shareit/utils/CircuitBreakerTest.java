@@ -0,0 +1,143 @@
+package ru.practicum.shareit.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+class CircuitBreakerTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long T0 = 1_000 * SECOND;
+
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        DownstreamGuardProperties properties = new DownstreamGuardProperties();
+        properties.setWindowSize(4);
+        properties.setMinimumCalls(4);
+        properties.setFailureRateThreshold(50);
+        properties.setSlowCallRateThreshold(75);
+        properties.setOpenDuration(Duration.ofSeconds(10));
+        properties.setHalfOpenCalls(2);
+        breaker = new CircuitBreaker(properties);
+    }
+
+    @Test
+    void onResult_whenBelowMinimumCalls_thenStaysClosed() {
+        for (int i = 0; i < 3; i++)
+            fail(T0);
+
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.CLOSED));
+        assertThat(breaker.getFailureRate(), equalTo(100));
+    }
+
+    @Test
+    void onResult_whenFailureRateReachesThreshold_thenOpensAndRejects() {
+        succeed(T0);
+        succeed(T0);
+        fail(T0);
+        fail(T0);
+
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.OPEN));
+        assertThat(breaker.tryAcquirePermission(T0 + SECOND), equalTo(CircuitBreaker.NOT_PERMITTED));
+        assertThat(breaker.getRemainingOpenNanos(T0 + SECOND), equalTo(9 * SECOND));
+    }
+
+    @Test
+    void onResult_whenSlowCallRateReachesThreshold_thenOpens() {
+        succeed(T0);
+        for (int i = 0; i < 3; i++)
+            breaker.onResult(breaker.tryAcquirePermission(T0), false, true, T0);
+
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.OPEN));
+    }
+
+    @Test
+    void onResult_whenWindowSlides_thenOldOutcomesForgotten() {
+        fail(T0);
+        for (int i = 0; i < 3; i++)
+            succeed(T0);
+        assertThat(breaker.getFailureRate(), equalTo(25));
+
+        succeed(T0);
+
+        assertThat(breaker.getFailureRate(), equalTo(0));
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.CLOSED));
+    }
+
+    @Test
+    void tryAcquirePermission_whenOpenDurationElapsed_thenHalfOpenWithLimitedPermits() {
+        open();
+
+        long first = breaker.tryAcquirePermission(T0 + 10 * SECOND);
+        long second = breaker.tryAcquirePermission(T0 + 10 * SECOND);
+
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.HALF_OPEN));
+        assertThat(first, not(equalTo(CircuitBreaker.NOT_PERMITTED)));
+        assertThat(second, not(equalTo(CircuitBreaker.NOT_PERMITTED)));
+        assertThat(breaker.tryAcquirePermission(T0 + 10 * SECOND), equalTo(CircuitBreaker.NOT_PERMITTED));
+    }
+
+    @Test
+    void onResult_whenTrialCallsSucceed_thenCloses() {
+        open();
+        long first = breaker.tryAcquirePermission(T0 + 10 * SECOND);
+        long second = breaker.tryAcquirePermission(T0 + 10 * SECOND);
+
+        breaker.onResult(first, false, false, T0 + 11 * SECOND);
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.HALF_OPEN));
+        breaker.onResult(second, false, false, T0 + 11 * SECOND);
+
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.CLOSED));
+        assertThat(breaker.getFailureRate(), equalTo(0));
+    }
+
+    @Test
+    void onResult_whenTrialCallFails_thenOpensAgain() {
+        open();
+        long first = breaker.tryAcquirePermission(T0 + 10 * SECOND);
+        long second = breaker.tryAcquirePermission(T0 + 10 * SECOND);
+
+        breaker.onResult(first, false, false, T0 + 11 * SECOND);
+        breaker.onResult(second, true, false, T0 + 11 * SECOND);
+
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.OPEN));
+        assertThat(breaker.getRemainingOpenNanos(T0 + 11 * SECOND), equalTo(10 * SECOND));
+    }
+
+    @Test
+    void onResult_whenCallAdmittedInEarlierState_thenIgnored() {
+        long stale = breaker.tryAcquirePermission(T0);
+        open();
+        long trial = breaker.tryAcquirePermission(T0 + 10 * SECOND);
+
+        breaker.onResult(stale, false, false, T0 + 10 * SECOND);
+        breaker.onResult(stale, false, false, T0 + 10 * SECOND);
+
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.HALF_OPEN));
+        breaker.onResult(trial, true, false, T0 + 10 * SECOND);
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.HALF_OPEN));
+        breaker.onResult(breaker.tryAcquirePermission(T0 + 10 * SECOND), true, false, T0 + 10 * SECOND);
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.OPEN));
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++)
+            fail(T0);
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.OPEN));
+    }
+
+    private void succeed(long now) {
+        breaker.onResult(breaker.tryAcquirePermission(now), false, false, now);
+    }
+
+    private void fail(long now) {
+        breaker.onResult(breaker.tryAcquirePermission(now), true, false, now);
+    }
+}
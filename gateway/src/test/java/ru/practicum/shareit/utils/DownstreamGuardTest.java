@@ -0,0 +1,96 @@
+package ru.practicum.shareit.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DownstreamGuardTest {
+    private SimpleMeterRegistry meterRegistry;
+    private DownstreamGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        DownstreamGuardProperties properties = new DownstreamGuardProperties();
+        properties.setWindowSize(2);
+        properties.setMinimumCalls(1);
+        properties.setOpenDuration(Duration.ZERO);
+        properties.setHalfOpenCalls(2);
+        properties.setDefaultMaxConcurrentCalls(1);
+        meterRegistry = new SimpleMeterRegistry();
+        guard = new DownstreamGuard("items", properties, meterRegistry);
+    }
+
+    @Test
+    void execute_whenServerError_thenCountedAsFailure() {
+        guard.execute(() -> respond(HttpStatus.INTERNAL_SERVER_ERROR)).join();
+
+        assertThat(guard.getCircuitBreaker().getState(), equalTo(CircuitBreaker.State.OPEN));
+        assertThat(guard.getInFlightCalls(), equalTo(0));
+    }
+
+    @Test
+    void execute_whenServerShedsLoad_thenNotCountedAsFailure() {
+        guard.execute(() -> CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(DownstreamGuard.LOAD_SHED_HEADER, "true")
+                .build())).join();
+
+        assertThat(guard.getCircuitBreaker().getState(), equalTo(CircuitBreaker.State.CLOSED));
+        assertThat(meterRegistry.get("shareit.gateway.downstream.calls").tag("result", "shed").counter().count(),
+                equalTo(1.0));
+
+        guard.execute(() -> respond(HttpStatus.SERVICE_UNAVAILABLE)).join();
+
+        assertThat(guard.getCircuitBreaker().getState(), equalTo(CircuitBreaker.State.OPEN));
+    }
+
+    @Test
+    void execute_whenBulkheadFullWhileHalfOpen_thenTrialPermitKept() {
+        guard.execute(() -> respond(HttpStatus.INTERNAL_SERVER_ERROR)).join();
+        CompletableFuture<ResponseEntity<Object>> slowTrial = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> firstTrial = guard.execute(() -> slowTrial);
+        assertThat(guard.getCircuitBreaker().getState(), equalTo(CircuitBreaker.State.HALF_OPEN));
+
+        assertUnavailable(guard.execute(() -> respond(HttpStatus.OK)));
+        slowTrial.complete(ResponseEntity.ok().build());
+        firstTrial.join();
+        guard.execute(() -> respond(HttpStatus.OK)).join();
+
+        assertThat(guard.getCircuitBreaker().getState(), equalTo(CircuitBreaker.State.CLOSED));
+        assertThat(guard.getInFlightCalls(), equalTo(0));
+    }
+
+    @Test
+    void execute_whenBreakerRejects_thenBulkheadSlotReleased() {
+        DownstreamGuardProperties properties = new DownstreamGuardProperties();
+        properties.setWindowSize(1);
+        properties.setMinimumCalls(1);
+        properties.setDefaultMaxConcurrentCalls(1);
+        DownstreamGuard openGuard = new DownstreamGuard("items", properties, new SimpleMeterRegistry());
+        openGuard.execute(() -> respond(HttpStatus.INTERNAL_SERVER_ERROR)).join();
+
+        assertUnavailable(openGuard.execute(() -> respond(HttpStatus.OK)));
+
+        assertThat(openGuard.getInFlightCalls(), equalTo(0));
+    }
+
+    private static CompletableFuture<ResponseEntity<Object>> respond(HttpStatus status) {
+        return CompletableFuture.completedFuture(ResponseEntity.status(status).build());
+    }
+
+    private static void assertUnavailable(CompletableFuture<ResponseEntity<Object>> result) {
+        CompletionException exception = assertThrows(CompletionException.class, result::join);
+        assertThat(exception.getCause(), instanceOf(ServiceUnavailableException.class));
+    }
+}
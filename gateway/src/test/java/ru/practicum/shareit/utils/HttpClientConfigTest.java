@@ -0,0 +1,72 @@
+package ru.practicum.shareit.utils;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.Configurable;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "shareit-server.http.max-total=42",
+        "shareit-server.http.max-per-route=21",
+        "shareit-server.http.connect-timeout=1500ms",
+        "shareit-server.http.read-timeout=7s",
+        "shareit-server.http.acquire-timeout=250ms",
+        "shareit-server.http.streams.max-connections=12",
+        "shareit-server.http.streams.read-timeout=40s"
+})
+class HttpClientConfigTest {
+    private static final String POOL_MAX_METRIC = "/actuator/metrics/httpcomponents.httpclient.pool.total.max";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private PoolingHttpClientConnectionManager shareItConnectionManager;
+    @Autowired
+    private PoolingHttpClientConnectionManager shareItStreamConnectionManager;
+    @Autowired
+    private CloseableHttpClient shareItHttpClient;
+    @Autowired
+    private CloseableHttpClient shareItStreamHttpClient;
+
+    @Test
+    void connectionManagers_whenConfigured_thenLimitsApplied() {
+        assertThat(shareItConnectionManager.getMaxTotal(), equalTo(42));
+        assertThat(shareItConnectionManager.getDefaultMaxPerRoute(), equalTo(21));
+        assertThat(shareItStreamConnectionManager.getMaxTotal(), equalTo(12));
+        assertThat(shareItStreamConnectionManager.getDefaultMaxPerRoute(), equalTo(12));
+    }
+
+    @Test
+    void httpClients_whenConfigured_thenTimeoutsApplied() {
+        RequestConfig requestConfig = ((Configurable) shareItHttpClient).getConfig();
+        assertThat(requestConfig.getConnectTimeout(), equalTo(1500));
+        assertThat(requestConfig.getSocketTimeout(), equalTo(7000));
+        assertThat(requestConfig.getConnectionRequestTimeout(), equalTo(250));
+
+        RequestConfig streamConfig = ((Configurable) shareItStreamHttpClient).getConfig();
+        assertThat(streamConfig.getSocketTimeout(), equalTo(40000));
+        assertThat(streamConfig.getConnectionRequestTimeout(), equalTo(250));
+    }
+
+    @Test
+    void poolMetrics_whenRequestedThroughActuator_thenReported() throws Exception {
+        mvc.perform(get(POOL_MAX_METRIC).param("tag", "httpclient:shareit-server"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[0].value").value(42.0));
+        mvc.perform(get(POOL_MAX_METRIC).param("tag", "httpclient:shareit-server-streams"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[0].value").value(12.0));
+    }
+}
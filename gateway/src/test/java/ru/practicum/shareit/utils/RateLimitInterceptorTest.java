@@ -0,0 +1,74 @@
+package ru.practicum.shareit.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+
+import javax.servlet.DispatcherType;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitInterceptorTest {
+    private RateLimitInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Quota quota = new RateLimitProperties.Quota();
+        quota.setCapacity(1);
+        quota.setRefillPerSecond(0.5);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setDefaultQuota(quota);
+        properties.getRoutes().put("bookings", quota);
+        interceptor = new RateLimitInterceptor(new TokenBucketRateLimiter(properties, new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void preHandle_whenBucketEmpty_thenTooManyRequestsWithRetryAfter() {
+        assertTrue(preHandle(request("/bookings/1", "1")));
+
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> preHandle(request("/bookings/2", "1")));
+        assertThat(exception.getRetryAfterSeconds(), equalTo(2L));
+    }
+
+    @Test
+    void preHandle_whenRouteDiffers_thenSeparateBucket() {
+        assertTrue(preHandle(request("/bookings", "1")));
+
+        assertTrue(preHandle(request("/items", "1")));
+    }
+
+    @Test
+    void preHandle_whenNoUserHeader_thenNotLimited() {
+        assertTrue(preHandle(request("/items", null)));
+        assertTrue(preHandle(request("/items", null)));
+        assertTrue(preHandle(request("/items", "not-a-number")));
+        assertTrue(preHandle(request("/items", "not-a-number")));
+    }
+
+    @Test
+    void preHandle_whenAsyncDispatch_thenNotCountedTwice() {
+        assertTrue(preHandle(request("/items", "1")));
+        MockHttpServletRequest asyncDispatch = request("/items", "1");
+        asyncDispatch.setDispatcherType(DispatcherType.ASYNC);
+
+        assertTrue(preHandle(asyncDispatch));
+    }
+
+    private boolean preHandle(MockHttpServletRequest request) {
+        return interceptor.preHandle(request, new MockHttpServletResponse(), new Object());
+    }
+
+    private static MockHttpServletRequest request(String uri, String userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        if (userId != null)
+            request.addHeader("X-Sharer-User-Id", userId);
+        return request;
+    }
+}
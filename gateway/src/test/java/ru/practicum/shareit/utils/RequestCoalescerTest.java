@@ -0,0 +1,104 @@
+package ru.practicum.shareit.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RequestCoalescerTest {
+    private final Object scope = new Object();
+    private final AtomicInteger calls = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private RequestCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new RequestCoalescer(meterRegistry);
+    }
+
+    @Test
+    void execute_whenSameRequestInFlight_thenFollowerGetsLeaderResult() {
+        CompletableFuture<ResponseEntity<Object>> downstream = new CompletableFuture<>();
+
+        CompletableFuture<ResponseEntity<Object>> leader = coalescer.execute(scope, "/items/1", null, 1L, call(downstream));
+        CompletableFuture<ResponseEntity<Object>> follower = coalescer.execute(scope, "/items/1", null, 1L, call(downstream));
+        ResponseEntity<Object> response = ResponseEntity.ok("item");
+        downstream.complete(response);
+
+        assertThat(calls.get(), equalTo(1));
+        assertThat(leader.join(), sameInstance(response));
+        assertThat(follower.join(), sameInstance(response));
+        assertThat(meterRegistry.get("shareit.gateway.coalescing").tag("role", "follower").counter().count(),
+                equalTo(1.0));
+    }
+
+    @Test
+    void execute_whenKeyDiffers_thenNotCoalesced() {
+        CompletableFuture<ResponseEntity<Object>> downstream = new CompletableFuture<>();
+
+        coalescer.execute(scope, "/items", Map.of("from", 0), 1L, call(downstream));
+        coalescer.execute(scope, "/items", Map.of("from", 0), 2L, call(downstream));
+        coalescer.execute(scope, "/items", Map.of("from", 10), 1L, call(downstream));
+        coalescer.execute(new Object(), "/items", Map.of("from", 0), 1L, call(downstream));
+
+        assertThat(calls.get(), equalTo(4));
+    }
+
+    @Test
+    void execute_whenLeaderCompleted_thenNextRequestCallsDownstream() {
+        coalescer.execute(scope, "/items/1", null, 1L, call(CompletableFuture.completedFuture(ResponseEntity.ok("a"))))
+                .join();
+        coalescer.execute(scope, "/items/1", null, 1L, call(CompletableFuture.completedFuture(ResponseEntity.ok("b"))))
+                .join();
+
+        assertThat(calls.get(), equalTo(2));
+    }
+
+    @Test
+    void execute_whenDownstreamFails_thenFailureSharedAndEntryCleared() {
+        CompletableFuture<ResponseEntity<Object>> downstream = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> leader = coalescer.execute(scope, "/items/1", null, 1L, call(downstream));
+        CompletableFuture<ResponseEntity<Object>> follower = coalescer.execute(scope, "/items/1", null, 1L, call(downstream));
+
+        downstream.completeExceptionally(new IllegalStateException("Сервер недоступен"));
+
+        assertThrows(CompletionException.class, leader::join);
+        CompletionException exception = assertThrows(CompletionException.class, follower::join);
+        assertThat(exception.getCause(), instanceOf(IllegalStateException.class));
+        assertInFlight(0);
+    }
+
+    @Test
+    void execute_whenCallThrows_thenFailureReturnedAndEntryCleared() {
+        CompletableFuture<ResponseEntity<Object>> result = coalescer.execute(scope, "/items/1", null, 1L, () -> {
+            throw new IllegalStateException("Сервер недоступен");
+        });
+
+        assertThrows(CompletionException.class, result::join);
+        assertInFlight(0);
+    }
+
+    private Supplier<CompletableFuture<ResponseEntity<Object>>> call(CompletableFuture<ResponseEntity<Object>> downstream) {
+        return () -> {
+            calls.incrementAndGet();
+            return downstream;
+        };
+    }
+
+    private void assertInFlight(double expected) {
+        assertThat(meterRegistry.get("shareit.gateway.coalescing.in-flight").gauge().value(), equalTo(expected));
+    }
+}
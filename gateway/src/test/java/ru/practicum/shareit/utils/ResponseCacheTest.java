@@ -0,0 +1,116 @@
+package ru.practicum.shareit.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class ResponseCacheTest {
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_whenCachedAndFresh_thenLoaderNotCalled() {
+        ResponseCache cache = cache(60_000);
+
+        cache.get("/items/1", null, 1L, loader("first")).join();
+        ResponseEntity<Object> response = cache.get("/items/1", null, 1L, loader("second")).join();
+
+        assertThat(response.getBody(), equalTo("first"));
+        assertThat(loads.get(), equalTo(1));
+    }
+
+    @Test
+    void get_whenKeyDiffers_thenLoadedSeparately() {
+        ResponseCache cache = cache(60_000);
+
+        cache.get("/items", Map.of("from", 0), 1L, loader("user 1")).join();
+        cache.get("/items", Map.of("from", 0), 2L, loader("user 2")).join();
+        cache.get("/items", Map.of("from", 10), 1L, loader("next page")).join();
+
+        assertThat(loads.get(), equalTo(3));
+        assertThat(cache.size(), equalTo(3));
+    }
+
+    @Test
+    void get_whenEntryExpired_thenReloaded() {
+        ResponseCache cache = cache(0);
+
+        cache.get("/items/1", null, 1L, loader("first")).join();
+        ResponseEntity<Object> response = cache.get("/items/1", null, 1L, loader("second")).join();
+
+        assertThat(response.getBody(), equalTo("second"));
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    @Test
+    void get_whenResponseNotSuccessful_thenNotCached() {
+        ResponseCache cache = cache(60_000);
+
+        cache.get("/items/1", null, 1L, () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+        }).join();
+
+        assertThat(cache.size(), equalTo(0));
+    }
+
+    @Test
+    void invalidate_whenResourceOrNestedResource_thenDropped() {
+        ResponseCache cache = cache(60_000);
+        cache.get("/items", null, 1L, loader("list")).join();
+        cache.get("/items/1", null, 1L, loader("item")).join();
+        cache.get("/itemsearch", null, 1L, loader("other")).join();
+
+        cache.invalidate("/items");
+
+        assertThat(cache.size(), equalTo(1));
+        cache.get("/itemsearch", null, 1L, loader("reloaded")).join();
+        assertThat(loads.get(), equalTo(3));
+    }
+
+    @Test
+    void invalidateAfter_whenWriteCompletes_thenResourceDropped() {
+        ResponseCache cache = cache(60_000);
+        cache.get("/items/1", null, 1L, loader("item")).join();
+        CompletableFuture<ResponseEntity<Object>> write = new CompletableFuture<>();
+
+        CompletableFuture<ResponseEntity<Object>> result = cache.invalidateAfter(write, "/items/1");
+        assertThat(cache.size(), equalTo(1));
+        write.complete(ResponseEntity.ok().build());
+
+        assertThat(result.join().getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(cache.size(), equalTo(0));
+    }
+
+    @Test
+    void get_whenInvalidatedWhileLoading_thenStaleResponseNotCached() {
+        ResponseCache cache = cache(60_000);
+        CompletableFuture<ResponseEntity<Object>> slowLoad = new CompletableFuture<>();
+
+        CompletableFuture<ResponseEntity<Object>> response = cache.get("/items/1", null, 1L, () -> slowLoad);
+        cache.invalidate("/items/1");
+        slowLoad.complete(ResponseEntity.ok("stale"));
+
+        assertThat(response.join().getBody(), equalTo("stale"));
+        assertThat(cache.size(), equalTo(0));
+    }
+
+    private ResponseCache cache(long ttlMillis) {
+        return new ResponseCache(new SimpleMeterRegistry(), 100, ttlMillis);
+    }
+
+    private Supplier<CompletableFuture<ResponseEntity<Object>>> loader(Object body) {
+        return () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(ResponseEntity.ok(body));
+        };
+    }
+}
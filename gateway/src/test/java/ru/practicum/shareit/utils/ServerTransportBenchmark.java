@@ -0,0 +1,169 @@
+package ru.practicum.shareit.utils;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Run with {@code mvn test -Dbenchmark=true -Dtest=ServerTransportBenchmark}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ServerTransportBenchmark {
+    private static final int SERVLET_THREADS = 200;
+    private static final int CONCURRENCY = 2000;
+    private static final int REQUESTS = 20000;
+    private static final long STUB_LATENCY_MILLIS = 50;
+    private static final byte[] STUB_BODY = "[{\"id\":1,\"name\":\"Дрель\",\"available\":true}]"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer stub;
+    private ExecutorService stubExecutor;
+    private String baseUrl;
+    private HttpClientProperties properties;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stubExecutor = Executors.newCachedThreadPool();
+        stub = HttpServer.create(new InetSocketAddress("localhost", 0), CONCURRENCY);
+        stub.setExecutor(stubExecutor);
+        stub.createContext("/items", exchange -> {
+            try {
+                Thread.sleep(STUB_LATENCY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, "application/json");
+            exchange.sendResponseHeaders(200, STUB_BODY.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(STUB_BODY);
+            }
+        });
+        stub.start();
+        baseUrl = "http://localhost:" + stub.getAddress().getPort() + "/items";
+
+        properties = new HttpClientProperties();
+        properties.setMaxTotal(CONCURRENCY);
+        properties.setMaxPerRoute(CONCURRENCY);
+        properties.setMaxPending(REQUESTS);
+        properties.setAcquireTimeout(Duration.ofSeconds(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.stop(0);
+        stubExecutor.shutdownNow();
+    }
+
+    @Test
+    void compareBlockingWithNonBlockingTransport() throws Exception {
+        HttpClientConfig blockingConfig = new HttpClientConfig();
+        PoolingHttpClientConnectionManager connectionManager =
+                blockingConfig.shareItConnectionManager(properties, new SimpleMeterRegistry());
+        CloseableHttpClient httpClient = blockingConfig.shareItHttpClient(connectionManager, properties);
+        ClientHttpRequestFactory requestFactory = blockingConfig.shareItRequestFactory(httpClient);
+        ServerTransport blocking = blockingConfig.restTemplateTransportFactory(new RestTemplateBuilder(),
+                requestFactory, requestFactory).create(baseUrl);
+
+        ReactiveHttpClientConfig reactiveConfig = new ReactiveHttpClientConfig();
+        ConnectionProvider connectionProvider = reactiveConfig.shareItConnectionProvider(properties);
+        ReactorClientHttpConnector connector = reactiveConfig.shareItClientConnector(connectionProvider, properties);
+        ServerTransport nonBlocking = reactiveConfig.webClientTransportFactory(WebClient.builder(),
+                connector, connector).create(baseUrl);
+
+        try {
+            runBlocking(blocking, SERVLET_THREADS);
+            runNonBlocking(nonBlocking);
+
+            double blockingThroughput = runBlocking(blocking, REQUESTS);
+            double nonBlockingThroughput = runNonBlocking(nonBlocking);
+
+            log.info("{} запросов, {} одновременно, задержка сервера {} мс: "
+                            + "RestTemplate на {} потоках {} rps, WebClient {} rps",
+                    REQUESTS, CONCURRENCY, STUB_LATENCY_MILLIS, SERVLET_THREADS,
+                    Math.round(blockingThroughput), Math.round(nonBlockingThroughput));
+        } finally {
+            httpClient.close();
+            connectionManager.close();
+            connectionProvider.dispose();
+        }
+    }
+
+    private double runBlocking(ServerTransport transport, int requests) throws Exception {
+        ExecutorService servletThreads = Executors.newFixedThreadPool(SERVLET_THREADS);
+        AtomicInteger ok = new AtomicInteger();
+        List<CompletableFuture<Void>> calls = new ArrayList<>(requests);
+
+        long started = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            calls.add(CompletableFuture.runAsync(() -> countOk(transport.exchange(HttpMethod.GET, "",
+                    headers(), null, null).join(), ok), servletThreads));
+        }
+        CompletableFuture.allOf(calls.toArray(new CompletableFuture[0])).join();
+        long elapsed = System.nanoTime() - started;
+
+        servletThreads.shutdown();
+        servletThreads.awaitTermination(1, TimeUnit.MINUTES);
+        assertEquals(requests, ok.get());
+        return requests * 1e9 / elapsed;
+    }
+
+    private double runNonBlocking(ServerTransport transport) {
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        AtomicInteger ok = new AtomicInteger();
+        List<CompletableFuture<Void>> calls = new ArrayList<>(REQUESTS);
+
+        long started = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            inFlight.acquireUninterruptibly();
+            calls.add(transport.exchange(HttpMethod.GET, "", headers(), null, null)
+                    .thenAccept(response -> countOk(response, ok))
+                    .whenComplete((ignored, e) -> inFlight.release()));
+        }
+        CompletableFuture.allOf(calls.toArray(new CompletableFuture[0])).join();
+        long elapsed = System.nanoTime() - started;
+
+        assertEquals(REQUESTS, ok.get());
+        return REQUESTS * 1e9 / elapsed;
+    }
+
+    private static HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", "1");
+        return headers;
+    }
+
+    private static void countOk(ResponseEntity<byte[]> response, AtomicInteger ok) {
+        if (response.getStatusCode().is2xxSuccessful())
+            ok.incrementAndGet();
+    }
+}
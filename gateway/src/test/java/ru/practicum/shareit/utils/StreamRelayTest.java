@@ -0,0 +1,113 @@
+package ru.practicum.shareit.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class StreamRelayTest {
+    private static final long TIMEOUT_MILLIS = 600_000;
+    private static final String EVENT = "event: booking\ndata: {\"id\":1}\n\n";
+
+    private StreamSubscriptions subscriptions;
+    private ThreadPoolExecutor executor;
+    private StreamRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        subscriptions = new StreamSubscriptions(new SimpleMeterRegistry(), 1, 15);
+        executor = new ThreadPoolExecutor(0, 1, 1, TimeUnit.SECONDS, new SynchronousQueue<>());
+        relay = new StreamRelay(subscriptions, TIMEOUT_MILLIS, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        relay.shutdown();
+    }
+
+    @Test
+    void relay_whenServedByMvc_thenBytesPassedThroughUnderStreamTimeout() throws Exception {
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(new EventsController()).build();
+
+        MvcResult result = mvc.perform(get("/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(result.getRequest().getAsyncContext().getTimeout(), equalTo(TIMEOUT_MILLIS));
+        result.getAsyncResult(TimeUnit.SECONDS.toMillis(5));
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(EVENT));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertDoesNotThrow(() -> subscriptions.open(1L));
+    }
+
+    @Test
+    void relay_whenAllStreamThreadsBusy_thenServiceUnavailableAndSlotReturned() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        relay.relay(1L, out -> await(release));
+
+        assertThrows(ServiceUnavailableException.class, () -> relay.relay(2L, out -> {
+        }));
+
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertDoesNotThrow(() -> subscriptions.open(2L));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @RestController
+    class EventsController {
+        @GetMapping("/events")
+        ResponseEntity<ResponseBodyEmitter> events() {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.TEXT_EVENT_STREAM)
+                    .body(relay.relay(1L, out -> {
+                        try {
+                            out.write(EVENT.getBytes(StandardCharsets.UTF_8));
+                            out.flush();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StreamSubscriptionsTest {
+    private SimpleMeterRegistry meterRegistry;
+    private StreamSubscriptions subscriptions;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        subscriptions = new StreamSubscriptions(meterRegistry, 2, 15);
+    }
+
+    @Test
+    void open_whenUserAtLimit_thenTooManyRequestsThrown() {
+        subscriptions.open(1L);
+        subscriptions.open(1L);
+
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> subscriptions.open(1L));
+        assertThat(exception.getRetryAfterSeconds(), equalTo(15L));
+        assertThat(meterRegistry.get("shareit.gateway.streams.rejected").counter().count(), closeTo(1.0, 0.001));
+    }
+
+    @Test
+    void open_whenOtherUserAtLimit_thenAdmitted() {
+        subscriptions.open(1L);
+        subscriptions.open(1L);
+
+        assertDoesNotThrow(() -> subscriptions.open(2L));
+    }
+
+    @Test
+    void close_whenStreamEnds_thenSlotReturned() {
+        subscriptions.open(1L);
+        subscriptions.open(1L);
+        subscriptions.close(1L);
+
+        assertDoesNotThrow(() -> subscriptions.open(1L));
+        subscriptions.close(1L);
+        subscriptions.close(1L);
+        assertThat(meterRegistry.get("shareit.gateway.streams.users").gauge().value(), closeTo(0.0, 0.001));
+    }
+}
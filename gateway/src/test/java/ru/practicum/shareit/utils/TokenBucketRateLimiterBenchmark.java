@@ -0,0 +1,79 @@
+package ru.practicum.shareit.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Run with {@code mvn test -Dbenchmark=true -Dtest=TokenBucketRateLimiterBenchmark}.
+ */
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class TokenBucketRateLimiterBenchmark {
+    private static final int USERS = 10_000;
+    private static final double NANOS_PER_MICROSECOND = 1000;
+
+    private TokenBucketRateLimiter rateLimiter;
+
+    @Setup
+    public void setUp() {
+        RateLimitProperties.Quota bookings = new RateLimitProperties.Quota();
+        bookings.setCapacity(10);
+        bookings.setRefillPerSecond(5);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getRoutes().put("bookings", bookings);
+        properties.setMaxBuckets(USERS * 2);
+        rateLimiter = new TokenBucketRateLimiter(properties, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public long sameUser() {
+        return rateLimiter.tryAcquire("bookings", 1);
+    }
+
+    @Benchmark
+    public long manyUsers() {
+        return rateLimiter.tryAcquire("bookings", ThreadLocalRandom.current().nextInt(USERS));
+    }
+
+    @Test
+    void admissionCheckTakesLessThanMicrosecond() throws Exception {
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(getClass().getName())
+                .build()).run();
+
+        for (RunResult result : results) {
+            double nanos = result.getPrimaryResult().getScore();
+            log.info("{}: {} нс на проверку", result.getParams().getBenchmark(), Math.round(nanos));
+            assertTrue(nanos < NANOS_PER_MICROSECOND);
+        }
+    }
+}
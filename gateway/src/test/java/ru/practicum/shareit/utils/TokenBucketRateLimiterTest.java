@@ -0,0 +1,114 @@
+package ru.practicum.shareit.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+class TokenBucketRateLimiterTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long T0 = 1_000 * SECOND;
+
+    @Test
+    void tryAcquire_whenBurstWithinCapacity_thenAdmittedThenRejected() {
+        TokenBucketRateLimiter limiter = limiter(3, 1, 100_000);
+
+        for (int i = 0; i < 3; i++)
+            assertThat(limiter.tryAcquire("items", 1L, T0), equalTo(0L));
+
+        assertThat(limiter.tryAcquire("items", 1L, T0), equalTo(SECOND));
+    }
+
+    @Test
+    void tryAcquire_whenTimePasses_thenTokensRefilled() {
+        TokenBucketRateLimiter limiter = limiter(2, 2, 100_000);
+        limiter.tryAcquire("items", 1L, T0);
+        limiter.tryAcquire("items", 1L, T0);
+
+        assertThat(limiter.tryAcquire("items", 1L, T0 + SECOND / 4), equalTo(SECOND / 4));
+        assertThat(limiter.tryAcquire("items", 1L, T0 + SECOND / 2), equalTo(0L));
+        assertThat(limiter.tryAcquire("items", 1L, T0 + SECOND / 2), greaterThan(0L));
+    }
+
+    @Test
+    void tryAcquire_whenUsersOrRoutesDiffer_thenBucketsIndependent() {
+        RateLimitProperties.Quota bookings = quota(1, 1);
+        RateLimitProperties properties = properties(quota(1, 1), 100_000);
+        properties.getRoutes().put("bookings", bookings);
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(properties, new SimpleMeterRegistry());
+
+        assertThat(limiter.tryAcquire("bookings", 1L, T0), equalTo(0L));
+        assertThat(limiter.tryAcquire("bookings", 2L, T0), equalTo(0L));
+        assertThat(limiter.tryAcquire("items", 1L, T0), equalTo(0L));
+        assertThat(limiter.tryAcquire("bookings", 1L, T0), greaterThan(0L));
+    }
+
+    @Test
+    void tryAcquire_whenStripeFullOfActiveBuckets_thenNewUserRejectedAndOthersKept() {
+        TokenBucketRateLimiter limiter = limiter(1, 1, 16);
+        assertThat(limiter.tryAcquire("items", 1L, T0), equalTo(0L));
+
+        int rejectedNewUsers = 0;
+        for (long userId = 2; userId < 200; userId++) {
+            if (limiter.tryAcquire("items", userId, T0) > 0)
+                rejectedNewUsers++;
+        }
+
+        assertThat(rejectedNewUsers, greaterThan(0));
+        assertThat(limiter.size(), lessThanOrEqualTo(16));
+        assertThat(limiter.tryAcquire("items", 1L, T0), greaterThan(0L));
+    }
+
+    @Test
+    void tryAcquire_whenStripeFullOfRefilledBuckets_thenRefilledBucketsEvicted() {
+        TokenBucketRateLimiter limiter = limiter(1, 1, 16);
+        for (long userId = 1; userId < 200; userId++)
+            limiter.tryAcquire("items", userId, T0);
+
+        int admittedNewUsers = 0;
+        for (long userId = 200; userId < 400; userId++) {
+            if (limiter.tryAcquire("items", userId, T0 + SECOND) == 0)
+                admittedNewUsers++;
+        }
+
+        assertThat(admittedNewUsers, equalTo(16));
+        assertThat(limiter.size(), equalTo(16));
+    }
+
+    @Test
+    void evictIdle_whenBucketsIdle_thenRemoved() {
+        TokenBucketRateLimiter limiter = limiter(2, 1, 100_000);
+        limiter.tryAcquire("items", 1L, T0);
+        limiter.tryAcquire("items", 2L, T0 + 5 * SECOND);
+
+        limiter.evictIdle(T0 + 61 * SECOND);
+
+        assertThat(limiter.size(), equalTo(1));
+    }
+
+    private static TokenBucketRateLimiter limiter(int capacity, double refillPerSecond, int maxBuckets) {
+        return new TokenBucketRateLimiter(properties(quota(capacity, refillPerSecond), maxBuckets),
+                new SimpleMeterRegistry());
+    }
+
+    private static RateLimitProperties properties(RateLimitProperties.Quota defaultQuota, int maxBuckets) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setDefaultQuota(defaultQuota);
+        properties.setMaxBuckets(maxBuckets);
+        properties.setIdleTimeout(Duration.ofMinutes(1));
+        return properties;
+    }
+
+    private static RateLimitProperties.Quota quota(int capacity, double refillPerSecond) {
+        RateLimitProperties.Quota quota = new RateLimitProperties.Quota();
+        quota.setCapacity(capacity);
+        quota.setRefillPerSecond(refillPerSecond);
+        return quota;
+    }
+}
@@ -4,12 +4,17 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoCreate;
 import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingEventStream;
 import ru.practicum.shareit.booking.service.BookingService;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 import static ru.practicum.shareit.item.controller.ItemController.SHARER_USER_ID;
@@ -19,6 +24,10 @@ import static ru.practicum.shareit.item.controller.ItemController.SHARER_USER_ID
 @RequiredArgsConstructor
 public class BookingController {
     private final BookingService bookingService;
+    private final BookingEventStream bookingEventStream;
+
+    public static final String NEXT_CURSOR = "X-Next-Cursor";
+    private static final int DEFAULT_PAGE_SIZE = 10;
 
     @PostMapping
     public BookingDto save(@RequestHeader(SHARER_USER_ID) long userId,
@@ -33,6 +42,11 @@ public class BookingController {
         return bookingService.bookingApprove(bookingId, ownerId, approved);
     }
 
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestHeader(SHARER_USER_ID) long userId) {
+        return bookingEventStream.subscribe(userId);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto findById(@RequestHeader(SHARER_USER_ID) long userId,
                                @PathVariable long bookingId) {
@@ -43,19 +57,49 @@ public class BookingController {
     public List<BookingDto> findByParam(@RequestHeader(SHARER_USER_ID) long userId,
                                         @RequestParam(required = false, defaultValue = "ALL") String state,
                                         @RequestParam(required = false) Integer from,
-                                        @RequestParam(required = false) Integer size) {
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "id"));
+                                        @RequestParam(required = false) Integer size,
+                                        @RequestParam(required = false) String after,
+                                        HttpServletResponse response) {
         BookingStatus status = BookingStatus.valueOf(state.toUpperCase());
-        return bookingService.findAllByParam(userId, status, pageable);
+        List<BookingDto> bookings;
+        if (after != null) {
+            size = size == null ? DEFAULT_PAGE_SIZE : size;
+            bookings = bookingService.findAllByParamAfter(userId, status, BookingCursor.decode(after), size);
+        } else {
+            Pageable pageable = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "id"));
+            bookings = bookingService.findAllByParam(userId, status, pageable);
+        }
+        setNextCursor(response, bookings, status, size);
+        return bookings;
     }
 
     @GetMapping("/owner")
     public List<BookingDto> findByOwner(@RequestHeader(SHARER_USER_ID) long userId,
                                         @RequestParam(required = false, defaultValue = "ALL") String state,
                                         @RequestParam(required = false) Integer from,
-                                        @RequestParam(required = false) Integer size) {
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "id"));
+                                        @RequestParam(required = false) Integer size,
+                                        @RequestParam(required = false) String after,
+                                        HttpServletResponse response) {
         BookingStatus status = BookingStatus.valueOf(state.toUpperCase());
-        return bookingService.findAllByOwner(userId, status, pageable);
+        List<BookingDto> bookings;
+        if (after != null) {
+            size = size == null ? DEFAULT_PAGE_SIZE : size;
+            bookings = bookingService.findAllByOwnerAfter(userId, status, BookingCursor.decode(after), size);
+        } else {
+            Pageable pageable = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "id"));
+            bookings = bookingService.findAllByOwner(userId, status, pageable);
+        }
+        setNextCursor(response, bookings, status, size);
+        return bookings;
+    }
+
+    private static void setNextCursor(HttpServletResponse response,
+                                      List<BookingDto> bookings,
+                                      BookingStatus status,
+                                      int size) {
+        if (bookings.isEmpty() || bookings.size() < size)
+            return;
+        BookingDto last = bookings.get(bookings.size() - 1);
+        response.setHeader(NEXT_CURSOR, BookingCursor.of(last, status).encode());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+@Getter
+@AllArgsConstructor
+public class BookingCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime start;
+
+    private final long id;
+
+    public static BookingCursor of(BookingDto bookingDto, BookingStatus status) {
+        if (status == BookingStatus.FUTURE)
+            return new BookingCursor(bookingDto.getStart(), bookingDto.getId());
+        return new BookingCursor(null, bookingDto.getId());
+    }
+
+    public static BookingCursor decode(String token) {
+        if (token == null || token.isBlank())
+            return null;
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            if (separator < 0)
+                return new BookingCursor(null, Long.parseLong(decoded));
+            return new BookingCursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Неверный курсор для просмотра!");
+        }
+    }
+
+    public String encode() {
+        String raw = start == null ? String.valueOf(id) : start + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -4,6 +4,9 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
 
 @Mapper
 public interface BookingMapper {
@@ -13,4 +16,49 @@ public interface BookingMapper {
 
     @Mapping(target = "bookerId", source = "booker.id")
     BookingDtoShort toDtoShort(Booking booking);
+
+    default BookingDto toDtoResponse(BookingRow row) {
+        if (row == null)
+            return null;
+
+        ItemRequest request = null;
+        if (row.getRequestId() != null) {
+            request = ItemRequest.builder()
+                    .id(row.getRequestId())
+                    .description(row.getRequestDescription())
+                    .created(row.getRequestCreated())
+                    .requestor(User.builder()
+                            .id(row.getRequestorId())
+                            .name(row.getRequestorName())
+                            .email(row.getRequestorEmail())
+                            .build())
+                    .build();
+        }
+
+        Item item = Item.builder()
+                .id(row.getItemId())
+                .name(row.getItemName())
+                .description(row.getItemDescription())
+                .available(row.getItemAvailable())
+                .owner(User.builder()
+                        .id(row.getOwnerId())
+                        .name(row.getOwnerName())
+                        .email(row.getOwnerEmail())
+                        .build())
+                .request(request)
+                .build();
+
+        return BookingDto.builder()
+                .id(row.getId())
+                .start(row.getStart())
+                .end(row.getEnd())
+                .status(row.getStatus())
+                .item(item)
+                .booker(User.builder()
+                        .id(row.getBookerId())
+                        .name(row.getBookerName())
+                        .email(row.getBookerEmail())
+                        .build())
+                .build();
+    }
 }
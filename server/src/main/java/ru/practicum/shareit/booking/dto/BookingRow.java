@@ -0,0 +1,37 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class BookingRow {
+
+    private final Long id;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final BookingStatus status;
+
+    private final Long itemId;
+    private final String itemName;
+    private final String itemDescription;
+    private final Boolean itemAvailable;
+
+    private final Long ownerId;
+    private final String ownerName;
+    private final String ownerEmail;
+
+    private final Long requestId;
+    private final String requestDescription;
+    private final LocalDateTime requestCreated;
+    private final Long requestorId;
+    private final String requestorName;
+    private final String requestorEmail;
+
+    private final Long bookerId;
+    private final String bookerName;
+    private final String bookerEmail;
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class BookingStatusEvent {
+
+    private final Long bookingId;
+    private final Long itemId;
+    private final Long bookerId;
+    private final Long ownerId;
+    private final BookingStatus status;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final LocalDateTime changedAt;
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingRow;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingQueryRepository {
+
+    List<BookingRow> findAllByState(BookingRole role,
+                                    long userId,
+                                    BookingStatus state,
+                                    LocalDateTime current,
+                                    Pageable pageable);
+
+    List<BookingRow> findAllByStateAfter(BookingRole role,
+                                         long userId,
+                                         BookingStatus state,
+                                         LocalDateTime current,
+                                         BookingCursor after,
+                                         int size);
+}
@@ -0,0 +1,176 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingRow;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class BookingQueryRepositoryImpl implements BookingQueryRepository {
+
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Direction.DESC, "id");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingRow> findAllByState(BookingRole role,
+                                           long userId,
+                                           BookingStatus state,
+                                           LocalDateTime current,
+                                           Pageable pageable) {
+        if (!isSupported(state))
+            return Collections.emptyList();
+
+        TypedQuery<BookingRow> query = entityManager.createQuery(
+                rowQuery(role, userId, state, current, null, pageable.getSort()));
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public List<BookingRow> findAllByStateAfter(BookingRole role,
+                                                long userId,
+                                                BookingStatus state,
+                                                LocalDateTime current,
+                                                BookingCursor after,
+                                                int size) {
+        if (!isSupported(state))
+            return Collections.emptyList();
+
+        return entityManager.createQuery(rowQuery(role, userId, state, current, after, KEYSET_SORT))
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    private CriteriaQuery<BookingRow> rowQuery(BookingRole role,
+                                               long userId,
+                                               BookingStatus state,
+                                               LocalDateTime current,
+                                               @Nullable BookingCursor after,
+                                               Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingRow> query = cb.createQuery(BookingRow.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+        Join<Item, User> owner = item.join("owner");
+        Join<Item, ItemRequest> request = item.join("request", JoinType.LEFT);
+        Join<ItemRequest, User> requestor = request.join("requestor", JoinType.LEFT);
+        Join<Booking, User> booker = booking.join("booker");
+
+        List<Predicate> predicates = statePredicates(cb, booking, state, current);
+        predicates.add(cb.equal(role == BookingRole.OWNER ? owner.get("id") : booker.get("id"), userId));
+        if (after != null)
+            predicates.add(seekPredicate(cb, booking, state, after));
+
+        return query.select(cb.construct(BookingRow.class,
+                        booking.get("id"), booking.get("start"), booking.get("end"), booking.get("status"),
+                        item.get("id"), item.get("name"), item.get("description"), item.get("available"),
+                        owner.get("id"), owner.get("name"), owner.get("email"),
+                        request.get("id"), request.get("description"), request.get("created"),
+                        requestor.get("id"), requestor.get("name"), requestor.get("email"),
+                        booker.get("id"), booker.get("name"), booker.get("email")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(QueryUtils.toOrders(stateSort(state, sort), booking, cb));
+    }
+
+    private static boolean isSupported(BookingStatus state) {
+        switch (state) {
+            case ALL:
+            case CURRENT:
+            case PAST:
+            case FUTURE:
+            case WAITING:
+            case REJECTED:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static List<Predicate> statePredicates(CriteriaBuilder cb,
+                                                   Root<Booking> booking,
+                                                   BookingStatus state,
+                                                   LocalDateTime current) {
+        List<Predicate> predicates = new ArrayList<>();
+
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<BookingStatus> status = booking.get("status");
+
+        switch (state) {
+            case CURRENT:
+                predicates.add(cb.lessThan(start, current));
+                predicates.add(cb.greaterThan(end, current));
+                break;
+            case PAST:
+                predicates.add(cb.lessThan(end, current));
+                predicates.add(cb.equal(status, BookingStatus.APPROVED));
+                break;
+            case FUTURE:
+                predicates.add(cb.greaterThan(start, current));
+                break;
+            case WAITING:
+            case REJECTED:
+                predicates.add(cb.equal(status, state));
+                break;
+            default:
+                break;
+        }
+        return predicates;
+    }
+
+    private static Predicate seekPredicate(CriteriaBuilder cb,
+                                           Root<Booking> booking,
+                                           BookingStatus state,
+                                           BookingCursor after) {
+        Path<Long> id = booking.get("id");
+        if (state != BookingStatus.FUTURE)
+            return cb.lessThan(id, after.getId());
+
+        Path<LocalDateTime> start = booking.get("start");
+        LocalDateTime afterStart = toStoredPrecision(after.getStart());
+        return cb.or(cb.lessThan(start, afterStart),
+                cb.and(cb.equal(start, afterStart), cb.lessThan(id, after.getId())));
+    }
+
+    /**
+     * start_date keeps microseconds, and the database rounds finer values when storing them. A cursor taken from
+     * an in-memory booking has to be rounded the same way, or the row it points at compares as before it.
+     */
+    private static LocalDateTime toStoredPrecision(LocalDateTime value) {
+        return value.plusNanos(500).truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private static Sort stateSort(BookingStatus state, Sort sort) {
+        if (state == BookingStatus.FUTURE)
+            return Sort.by(Sort.Direction.DESC, "start").and(sort);
+        return sort;
+    }
+}
@@ -1,6 +1,6 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
@@ -9,53 +9,26 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingQueryRepository {
 
-    List<Booking> findBookingByBookerIdOrderByIdDesc(long userId, Pageable pageable);
+    @Override
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findById(Long id);
 
-    List<Booking> findBookingByBookerIdAndStartIsBeforeAndEndIsAfter(long userId,
-                                                                     LocalDateTime dateTime1,
-                                                                     LocalDateTime dateTime2,
-                                                                     Pageable pageable);
-
-    List<Booking> findBookingByBookerIdAndEndIsBeforeAndStatusIs(long userId,
-                                                                 LocalDateTime current,
-                                                                 BookingStatus status,
-                                                                 Pageable pageable);
-
-    List<Booking> findBookingByBookerIdAndStartIsAfterOrderByStartDesc(long userId,
-                                                                       LocalDateTime current,
-                                                                       Pageable pageable);
-
-    List<Booking> findBookingByBookerIdAndStatus(long userId,
-                                                 BookingStatus status,
-                                                 Pageable pageable);
-
-    List<Booking> findBookingByItemOwnerIdOrderByIdDesc(long userId,
-                                                        Pageable pageable);
-
-    List<Booking> findBookingByItemOwnerIdAndStartIsBeforeAndEndIsAfter(long userId,
-                                                                        LocalDateTime dateTime1,
-                                                                        LocalDateTime dateTime2,
-                                                                        Pageable pageable);
-
-    List<Booking> findBookingByItemOwnerIdAndEndIsBeforeAndStatusIs(long userId,
-                                                                    LocalDateTime current,
-                                                                    BookingStatus status,
-                                                                    Pageable pageable);
+    Optional<Booking> findFirstByItem_IdAndBooker_Id(long itemId, long userId);
 
-    List<Booking> findBookingByItemOwnerIdAndStartIsAfterOrderByStartDesc(long userId,
-                                                                          LocalDateTime current,
-                                                                          Pageable pageable);
+    Optional<Booking> findFirstByItem_IdAndStatusAndEndIsBeforeOrderByEndDesc(long itemId,
+                                                                            BookingStatus status,
+                                                                            LocalDateTime current);
 
-    List<Booking> findBookingByItemOwnerIdAndStatus(long userId,
-                                                    BookingStatus status,
-                                                    Pageable pageable);
+    Optional<Booking> findFirstByItem_IdAndStatusAndEndIsAfterOrderByEndAsc(long itemId,
+                                                                          BookingStatus status,
+                                                                          LocalDateTime current);
 
-    List<Booking> findBookingByItem_Id(long userId);
+    Optional<Booking> findFirstByItem_IdAndStartIsAfterOrderByEndAsc(long itemId, LocalDateTime current);
 
-    List<Booking> findAllByItemOwnerId(long userId);
+    Optional<Booking> findFirstByItem_IdAndStartIsAfterOrderByStartAsc(long itemId, LocalDateTime current);
 
-    Optional<Booking> findFirstByItem_IdAndBooker_Id(long itemId, long userId);
+    List<Booking> findAllByStatusInAndEndIsAfter(List<BookingStatus> statuses, LocalDateTime current);
 
 }
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingStatusEvent;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@Component
+public class BookingEventStream {
+
+    public static final String EVENT_NAME = "booking-status";
+
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final ExecutorService dispatcher;
+    private final ConcurrentMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BookingEventStream(@Value("${shareit.booking-events.timeout-ms:1800000}") long timeoutMillis,
+                              @Value("${shareit.booking-events.buffer-size:32}") int bufferSize,
+                              @Value("${shareit.booking-events.dispatchers:2}") int dispatchers) {
+        this(timeoutMillis, bufferSize, Executors.newFixedThreadPool(dispatchers, runnable -> {
+            Thread thread = new Thread(runnable, "booking-events");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    BookingEventStream(long timeoutMillis, int bufferSize, ExecutorService dispatcher) {
+        this.timeoutMillis = timeoutMillis;
+        this.bufferSize = bufferSize;
+        this.dispatcher = dispatcher;
+    }
+
+    public SseEmitter subscribe(long userId) {
+        return subscribe(userId, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(long userId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(userId, emitter, bufferSize);
+        subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onStatusChanged(BookingStatusEvent event) {
+        publish(event.getBookerId(), event);
+        if (!event.getOwnerId().equals(event.getBookerId()))
+            publish(event.getOwnerId(), event);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> {
+            try {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException e) {
+                subscriber.emitter.completeWithError(e);
+                unsubscribe(subscriber);
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribers.clear();
+    }
+
+    private void publish(long userId, BookingStatusEvent event) {
+        Set<Subscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers == null)
+            return;
+
+        for (Subscriber subscriber : userSubscribers) {
+            if (subscriber.offer(event))
+                dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            BookingStatusEvent event;
+            while ((event = subscriber.buffer.poll()) != null) {
+                try {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(String.valueOf(event.getBookingId()))
+                            .name(EVENT_NAME)
+                            .data(event, MediaType.APPLICATION_JSON));
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Подписчик {} отключился", subscriber.userId);
+                    subscriber.emitter.completeWithError(e);
+                    unsubscribe(subscriber);
+                    subscriber.buffer.clear();
+                    subscriber.draining.set(false);
+                    return;
+                }
+            }
+            subscriber.draining.set(false);
+        } while (!subscriber.buffer.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+    private static class Subscriber {
+        private final long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<BookingStatusEvent> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(long userId, SseEmitter emitter, int bufferSize) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        boolean offer(BookingStatusEvent event) {
+            while (!buffer.offer(event))
+                buffer.poll();
+            return draining.compareAndSet(false, true);
+        }
+    }
+}
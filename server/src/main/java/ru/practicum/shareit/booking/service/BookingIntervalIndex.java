@@ -0,0 +1,172 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.utils.TransactionCallbacks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+@Component
+public class BookingIntervalIndex {
+
+    private final ConcurrentMap<Long, ItemIntervals> intervals = new ConcurrentHashMap<>();
+
+    public Booking reserve(long itemId, LocalDateTime start, LocalDateTime end, Supplier<Booking> saver) {
+        ItemIntervals itemIntervals = intervals.computeIfAbsent(itemId, id -> new ItemIntervals());
+
+        synchronized (itemIntervals) {
+            itemIntervals.evictFinished(LocalDateTime.now());
+            if (itemIntervals.overlaps(start, end))
+                throw new ValidationException("Предмет уже забронирован на указанный период!");
+
+            Booking booking = saver.get();
+            if (booking != null && booking.getId() != null) {
+                itemIntervals.put(booking.getId(), booking.getStart(), booking.getEnd());
+                releaseOnRollback(itemId, booking.getId());
+            }
+            return booking;
+        }
+    }
+
+    /**
+     * Blocks the interval right away, so it is already taken while the transaction is open, and releases it again if
+     * the transaction does not commit.
+     */
+    public void add(Booking booking) {
+        long itemId = booking.getItem().getId();
+        ItemIntervals itemIntervals = intervals.computeIfAbsent(itemId, id -> new ItemIntervals());
+
+        synchronized (itemIntervals) {
+            if (!itemIntervals.contains(booking.getId()))
+                releaseOnRollback(itemId, booking.getId());
+            itemIntervals.put(booking.getId(), booking.getStart(), booking.getEnd());
+        }
+    }
+
+    /**
+     * Keeps the interval blocked until the transaction commits, so a rolled back rejection leaves it taken.
+     */
+    public void remove(long itemId, long bookingId) {
+        TransactionCallbacks.afterCommit(() -> release(itemId, bookingId));
+    }
+
+    public void clear() {
+        intervals.clear();
+    }
+
+    Duration longest(long itemId) {
+        ItemIntervals itemIntervals = intervals.get(itemId);
+        if (itemIntervals == null)
+            return Duration.ZERO;
+
+        synchronized (itemIntervals) {
+            return itemIntervals.longest();
+        }
+    }
+
+    private void release(long itemId, long bookingId) {
+        ItemIntervals itemIntervals = intervals.get(itemId);
+        if (itemIntervals == null)
+            return;
+
+        synchronized (itemIntervals) {
+            itemIntervals.remove(bookingId);
+        }
+    }
+
+    private void releaseOnRollback(long itemId, long bookingId) {
+        TransactionCallbacks.afterRollback(() -> release(itemId, bookingId));
+    }
+
+    private static class ItemIntervals {
+        private final NavigableSet<Slot> byStart = new TreeSet<>();
+        private final Map<Long, Slot> byBookingId = new HashMap<>();
+        // Count of slots per duration, so the longest one is known again once it is removed.
+        private final NavigableMap<Duration, Integer> durations = new TreeMap<>();
+
+        boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            // Nothing starting earlier than start - longest can still be running at start.
+            Slot from = new Slot(Long.MIN_VALUE, start.minus(longest()), start);
+            Slot to = new Slot(Long.MIN_VALUE, end, end);
+            for (Slot slot : byStart.subSet(from, true, to, false)) {
+                if (slot.end.isAfter(start))
+                    return true;
+            }
+            return false;
+        }
+
+        void put(long bookingId, LocalDateTime start, LocalDateTime end) {
+            remove(bookingId);
+            Slot slot = new Slot(bookingId, start, end);
+            byStart.add(slot);
+            byBookingId.put(bookingId, slot);
+            durations.merge(slot.duration(), 1, Integer::sum);
+        }
+
+        void remove(long bookingId) {
+            Slot slot = byBookingId.remove(bookingId);
+            if (slot != null) {
+                byStart.remove(slot);
+                forget(slot);
+            }
+        }
+
+        boolean contains(long bookingId) {
+            return byBookingId.containsKey(bookingId);
+        }
+
+        Duration longest() {
+            return durations.isEmpty() ? Duration.ZERO : durations.lastKey();
+        }
+
+        void evictFinished(LocalDateTime now) {
+            Iterator<Slot> started = byStart.headSet(new Slot(Long.MIN_VALUE, now, now), false).iterator();
+            while (started.hasNext()) {
+                Slot slot = started.next();
+                if (slot.end.isBefore(now)) {
+                    started.remove();
+                    byBookingId.remove(slot.bookingId);
+                    forget(slot);
+                }
+            }
+        }
+
+        private void forget(Slot slot) {
+            durations.computeIfPresent(slot.duration(), (duration, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    private static class Slot implements Comparable<Slot> {
+        private final long bookingId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        Slot(long bookingId, LocalDateTime start, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.start = start;
+            this.end = end;
+        }
+
+        Duration duration() {
+            return Duration.between(start, end);
+        }
+
+        @Override
+        public int compareTo(Slot other) {
+            int byStart = start.compareTo(other.start);
+            return byStart != 0 ? byStart : Long.compare(bookingId, other.bookingId);
+        }
+    }
+}
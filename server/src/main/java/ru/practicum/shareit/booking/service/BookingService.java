@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking.service;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoCreate;
 import ru.practicum.shareit.booking.enums.BookingStatus;
@@ -17,4 +18,8 @@ public interface BookingService {
     List<BookingDto> findAllByParam(long userId, BookingStatus status, Pageable pageablec);
 
     List<BookingDto> findAllByOwner(long userId, BookingStatus status, Pageable pageable);
+
+    List<BookingDto> findAllByParamAfter(long userId, BookingStatus status, BookingCursor after, int size);
+
+    List<BookingDto> findAllByOwnerAfter(long userId, BookingStatus status, BookingCursor after, int size);
 }
@@ -1,11 +1,18 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoCreate;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingStatusEvent;
+import ru.practicum.shareit.booking.enums.BookingRole;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
@@ -13,12 +20,11 @@ import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
-import javax.transaction.Transactional;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -29,14 +35,23 @@ import static ru.practicum.shareit.booking.enums.BookingStatus.*;
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final ItemRepository itemRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpIntervalIndex() {
+        bookingIntervalIndex.clear();
+        bookingRepository.findAllByStatusInAndEndIsAfter(List.of(WAITING, APPROVED), LocalDateTime.now())
+                .forEach(bookingIntervalIndex::add);
+    }
 
     @Transactional
     @Override
     public BookingDto save(BookingDtoCreate bookingDtoCreate, long userId) {
-        final User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не существует!"));
+        final User user = userExistenceCache.reference(userId, "Пользователь не существует!");
         final Item item = itemRepository.findById(bookingDtoCreate.getItemId())
                 .orElseThrow(() -> new NotFoundException("Предмет отсутствует!"));
 
@@ -57,7 +72,11 @@ public class BookingServiceImpl implements BookingService {
                 .status(WAITING)
                 .build();
 
-        return BookingMapper.INSTANCE.toDtoResponse(bookingRepository.save(booking));
+        final Booking savedBooking = bookingIntervalIndex.reserve(item.getId(), booking.getStart(), booking.getEnd(),
+                () -> bookingRepository.save(booking));
+        itemBookingSummaryService.refresh(item.getId());
+
+        return BookingMapper.INSTANCE.toDtoResponse(savedBooking);
     }
 
     @Transactional
@@ -72,14 +91,29 @@ public class BookingServiceImpl implements BookingService {
         if (!booking.getStatus().equals(WAITING))
             throw new ValidationException("Статус для изменения не доступен!");
 
-        if (approved)
+        if (approved) {
             booking.setStatus(APPROVED);
-        else
+            bookingIntervalIndex.add(booking);
+        } else {
             booking.setStatus(REJECTED);
+            bookingIntervalIndex.remove(item.getId(), booking.getId());
+        }
 
-        return BookingMapper.INSTANCE.toDtoResponse(bookingRepository.save(booking));
+        final Booking savedBooking = bookingRepository.save(booking);
+        itemBookingSummaryService.refresh(item.getId());
+        eventPublisher.publishEvent(new BookingStatusEvent(booking.getId(),
+                item.getId(),
+                booking.getBooker().getId(),
+                ownerId,
+                booking.getStatus(),
+                booking.getStart(),
+                booking.getEnd(),
+                LocalDateTime.now()));
+
+        return BookingMapper.INSTANCE.toDtoResponse(savedBooking);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public BookingDto findById(long bookingId, long userId) {
         final Booking booking = bookingRepository.findById(bookingId)
@@ -91,74 +125,51 @@ public class BookingServiceImpl implements BookingService {
             throw new NotFoundException("Соответствие между бронированием и пользователем отсутствует!");
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<BookingDto> findAllByParam(long userId, BookingStatus status, Pageable pageable) {
-        List<Booking> bookingList = new ArrayList<>();
-        final User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не существует!"));
-
-
-        switch (status) {
-            case ALL:
-                bookingList = bookingRepository.findBookingByBookerIdOrderByIdDesc(userId, pageable);
-                break;
-            case CURRENT:
-                bookingList = bookingRepository
-                        .findBookingByBookerIdAndStartIsBeforeAndEndIsAfter(userId,
-                                LocalDateTime.now(), LocalDateTime.now(), pageable);
-                break;
-            case PAST:
-                bookingList = bookingRepository.findBookingByBookerIdAndEndIsBeforeAndStatusIs(userId,
-                        LocalDateTime.now(), APPROVED, pageable);
-                break;
-            case FUTURE:
-                bookingList = bookingRepository.findBookingByBookerIdAndStartIsAfterOrderByStartDesc(userId,
-                        LocalDateTime.now(), pageable);
-                break;
-            case WAITING:
-                bookingList = bookingRepository.findBookingByBookerIdAndStatus(userId, WAITING, pageable);
-                break;
-            case REJECTED:
-                bookingList = bookingRepository.findBookingByBookerIdAndStatus(userId, REJECTED, pageable);
-                break;
-        }
-        return bookingList.stream()
-                .map(BookingMapper.INSTANCE::toDtoResponse)
-                .collect(Collectors.toList());
+        return findAllByRole(BookingRole.BOOKER, userId, status, pageable);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<BookingDto> findAllByOwner(long userId, BookingStatus status, Pageable pageable) {
-        List<Booking> bookingList = new ArrayList<>();
-        final User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не существует!"));
-
-        switch (status) {
-            case ALL:
-                bookingList = bookingRepository.findBookingByItemOwnerIdOrderByIdDesc(userId, pageable);
-                break;
-            case CURRENT:
-                bookingList = bookingRepository
-                        .findBookingByItemOwnerIdAndStartIsBeforeAndEndIsAfter(userId,
-                                LocalDateTime.now(), LocalDateTime.now(), pageable);
-                break;
-            case PAST:
-                bookingList = bookingRepository.findBookingByItemOwnerIdAndEndIsBeforeAndStatusIs(userId,
-                        LocalDateTime.now(), APPROVED, pageable);
-                break;
-            case FUTURE:
-                bookingList = bookingRepository.findBookingByItemOwnerIdAndStartIsAfterOrderByStartDesc(userId,
-                        LocalDateTime.now(),
-                        pageable);
-                break;
-            case WAITING:
-                bookingList = bookingRepository.findBookingByItemOwnerIdAndStatus(userId, WAITING, pageable);
-                break;
-            case REJECTED:
-                bookingList = bookingRepository.findBookingByItemOwnerIdAndStatus(userId, REJECTED, pageable);
-                break;
-        }
-        return bookingList.stream()
+        return findAllByRole(BookingRole.OWNER, userId, status, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<BookingDto> findAllByParamAfter(long userId, BookingStatus status, BookingCursor after, int size) {
+        return findAllByRoleAfter(BookingRole.BOOKER, userId, status, after, size);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<BookingDto> findAllByOwnerAfter(long userId, BookingStatus status, BookingCursor after, int size) {
+        return findAllByRoleAfter(BookingRole.OWNER, userId, status, after, size);
+    }
+
+    private List<BookingDto> findAllByRole(BookingRole role, long userId, BookingStatus status, Pageable pageable) {
+        userExistenceCache.verify(userId, "Пользователь не существует!");
+
+        return bookingRepository.findAllByState(role, userId, status, LocalDateTime.now(), pageable).stream()
+                .map(BookingMapper.INSTANCE::toDtoResponse)
+                .collect(Collectors.toList());
+    }
+
+    private List<BookingDto> findAllByRoleAfter(BookingRole role,
+                                                long userId,
+                                                BookingStatus status,
+                                                BookingCursor after,
+                                                int size) {
+        userExistenceCache.verify(userId, "Пользователь не существует!");
+
+        if (size <= 0)
+            throw new ValidationException("Неправильно указанны параметры для просмотра!");
+        if (after != null && status == FUTURE && after.getStart() == null)
+            throw new ValidationException("Неверный курсор для просмотра!");
+
+        return bookingRepository.findAllByStateAfter(role, userId, status, LocalDateTime.now(), after, size).stream()
                 .map(BookingMapper.INSTANCE::toDtoResponse)
                 .collect(Collectors.toList());
     }
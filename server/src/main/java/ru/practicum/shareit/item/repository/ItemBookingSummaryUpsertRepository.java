@@ -0,0 +1,8 @@
+package ru.practicum.shareit.item.repository;
+
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+public interface ItemBookingSummaryUpsertRepository {
+
+    void upsert(ItemBookingSummary summary);
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+import java.sql.Timestamp;
+
+public class ItemBookingSummaryUpsertRepositoryImpl implements ItemBookingSummaryUpsertRepository {
+
+    private static final String POSTGRES_UPSERT = "insert into item_booking_summary " +
+            "(item_id, last_booking_id, last_booker_id, next_booking_id, next_booker_id, valid_until) " +
+            "values (?, ?, ?, ?, ?, ?) " +
+            "on conflict (item_id) do update set " +
+            "last_booking_id = excluded.last_booking_id, " +
+            "last_booker_id = excluded.last_booker_id, " +
+            "next_booking_id = excluded.next_booking_id, " +
+            "next_booker_id = excluded.next_booker_id, " +
+            "valid_until = excluded.valid_until";
+
+    private static final String H2_UPSERT = "merge into item_booking_summary " +
+            "(item_id, last_booking_id, last_booker_id, next_booking_id, next_booker_id, valid_until) " +
+            "key (item_id) values (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.sql.init.platform:postgresql}")
+    private String platform;
+
+    @Override
+    public void upsert(ItemBookingSummary summary) {
+        jdbcTemplate.update("h2".equals(platform) ? H2_UPSERT : POSTGRES_UPSERT,
+                summary.getItemId(),
+                summary.getLastBookingId(),
+                summary.getLastBookerId(),
+                summary.getNextBookingId(),
+                summary.getNextBookerId(),
+                summary.getValidUntil() == null ? null : Timestamp.valueOf(summary.getValidUntil()));
+    }
+}
@@ -4,7 +4,9 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.RequestItemRow;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
@@ -17,7 +19,11 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "or lower(i.description) like %?1%)")
     List<Item> searchByText(String text, Pageable pageable);
 
-    List<Item> findAllByRequestIdIn(List<Long> itemRequest);
+    @Query("select new ru.practicum.shareit.request.dto.RequestItemRow(i.request.id, i.id, i.name, i.description, i.available) " +
+            "from Item i " +
+            "where i.request.id in ?1 " +
+            "order by i.id")
+    List<RequestItemRow> findAllRowsByRequestIdIn(Collection<Long> requestIds);
 
-    List<Item> findAllByRequestId(long itemRequest);
+    List<Item> findAllByAvailableTrue();
 }
@@ -0,0 +1,319 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.utils.TransactionCallbacks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+
+    private static final int GRAM = 3;
+    private static final int BUILD_CHUNK = 1024;
+
+    private final ItemRepository itemRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<Integer, ItemDoc> docs = new TreeMap<>();
+    private final Map<Long, Integer> docNumbers = new HashMap<>();
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private int nextDocNumber;
+    private List<ItemDoc> appliedDuringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            appliedDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<ItemDoc> available = itemRepository.findAllByAvailableTrue().stream()
+                .map(ItemDoc::of)
+                .sorted(Comparator.comparingLong(doc -> doc.itemId))
+                .collect(Collectors.toList());
+        Map<Long, PostingList> built = ForkJoinPool.commonPool()
+                .invoke(new BuildTask(available, 0, available.size()));
+
+        lock.writeLock().lock();
+        try {
+            docs.clear();
+            docNumbers.clear();
+            postings.clear();
+            for (int number = 0; number < available.size(); number++) {
+                docs.put(number, available.get(number));
+                docNumbers.put(available.get(number).itemId, number);
+            }
+            postings.putAll(built);
+            nextDocNumber = available.size();
+            // Commits that landed after the snapshot was read would otherwise be lost.
+            List<ItemDoc> replay = appliedDuringRebuild;
+            appliedDuringRebuild = null;
+            replay.forEach(this::applyLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Поисковый индекс построен: {} предметов, {} триграмм", available.size(), built.size());
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        if (text == null || text.isBlank())
+            return Collections.emptyList();
+
+        String query = text.toLowerCase();
+        long skip = pageable.isPaged() ? pageable.getOffset() : 0;
+        int limit = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+        List<Item> result = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            Iterable<ItemDoc> candidates = query.length() < GRAM ? docs.values() : candidates(query);
+            for (ItemDoc doc : candidates) {
+                if (!doc.matches(query))
+                    continue;
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                result.add(doc.toItem());
+                if (result.size() == limit)
+                    break;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    @Override
+    public void index(Item item) {
+        if (item == null || item.getId() == null)
+            return;
+
+        ItemDoc doc = ItemDoc.of(item);
+        TransactionCallbacks.afterCommit(() -> apply(doc));
+    }
+
+    private void apply(ItemDoc doc) {
+        lock.writeLock().lock();
+        try {
+            applyLocked(doc);
+            if (appliedDuringRebuild != null)
+                appliedDuringRebuild.add(doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void applyLocked(ItemDoc doc) {
+        Integer number = docNumbers.get(doc.itemId);
+        if (number != null) {
+            for (long gram : docs.get(number).grams()) {
+                PostingList list = postings.get(gram);
+                list.remove(number);
+                if (list.size == 0)
+                    postings.remove(gram);
+            }
+        }
+        if (!doc.available) {
+            if (number != null) {
+                docs.remove(number);
+                docNumbers.remove(doc.itemId);
+            }
+            return;
+        }
+
+        if (number == null) {
+            number = nextDocNumber++;
+            docNumbers.put(doc.itemId, number);
+        }
+        docs.put(number, doc);
+        for (long gram : doc.grams())
+            postings.computeIfAbsent(gram, key -> new PostingList()).add(number);
+    }
+
+    private List<ItemDoc> candidates(String query) {
+        List<PostingList> lists = new ArrayList<>();
+        for (long gram : grams(query)) {
+            PostingList list = postings.get(gram);
+            if (list == null)
+                return Collections.emptyList();
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+
+        int[] result = lists.get(0).toArray();
+        for (int i = 1; i < lists.size() && result.length > 0; i++)
+            result = lists.get(i).retain(result);
+        return Arrays.stream(result)
+                .mapToObj(docs::get)
+                .collect(Collectors.toList());
+    }
+
+    private static long[] grams(String text) {
+        if (text.length() < GRAM)
+            return new long[0];
+
+        long[] grams = new long[text.length() - GRAM + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) text.charAt(i) << 32)
+                    | ((long) text.charAt(i + 1) << 16)
+                    | text.charAt(i + 2);
+        }
+        return grams;
+    }
+
+    private static class BuildTask extends RecursiveTask<Map<Long, PostingList>> {
+        private final List<ItemDoc> docs;
+        private final int from;
+        private final int to;
+
+        BuildTask(List<ItemDoc> docs, int from, int to) {
+            this.docs = docs;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<Long, PostingList> compute() {
+            if (to - from <= BUILD_CHUNK) {
+                Map<Long, PostingList> partial = new HashMap<>();
+                for (int i = from; i < to; i++) {
+                    int number = i;
+                    for (long gram : docs.get(i).grams())
+                        partial.computeIfAbsent(gram, key -> new PostingList()).add(number);
+                }
+                return partial;
+            }
+
+            int middle = (from + to) >>> 1;
+            BuildTask left = new BuildTask(docs, from, middle);
+            BuildTask right = new BuildTask(docs, middle, to);
+            right.fork();
+            Map<Long, PostingList> merged = left.compute();
+            right.join().forEach((gram, list) -> merged.merge(gram, list, PostingList::append));
+            return merged;
+        }
+    }
+
+    private static class ItemDoc {
+        private final long itemId;
+        private final String name;
+        private final String description;
+        private final String lowerName;
+        private final String lowerDescription;
+        private final boolean available;
+        private final Long requestId;
+
+        private ItemDoc(Item item) {
+            this.itemId = item.getId();
+            this.name = item.getName();
+            this.description = item.getDescription();
+            this.lowerName = name == null ? "" : name.toLowerCase();
+            this.lowerDescription = description == null ? "" : description.toLowerCase();
+            this.available = Boolean.TRUE.equals(item.getAvailable());
+            this.requestId = item.getRequest() == null ? null : item.getRequest().getId();
+        }
+
+        static ItemDoc of(Item item) {
+            return new ItemDoc(item);
+        }
+
+        boolean matches(String query) {
+            return lowerName.contains(query) || lowerDescription.contains(query);
+        }
+
+        long[] grams() {
+            long[] nameGrams = InMemoryItemSearchEngine.grams(lowerName);
+            long[] descriptionGrams = InMemoryItemSearchEngine.grams(lowerDescription);
+            long[] all = new long[nameGrams.length + descriptionGrams.length];
+            System.arraycopy(nameGrams, 0, all, 0, nameGrams.length);
+            System.arraycopy(descriptionGrams, 0, all, nameGrams.length, descriptionGrams.length);
+            return Arrays.stream(all).distinct().toArray();
+        }
+
+        Item toItem() {
+            return Item.builder()
+                    .id(itemId)
+                    .name(name)
+                    .description(description)
+                    .available(available)
+                    .request(requestId == null ? null : ItemRequest.builder().id(requestId).build())
+                    .build();
+        }
+    }
+
+    private static class PostingList {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0)
+                return;
+            position = -position - 1;
+            if (size == ids.length)
+                ids = Arrays.copyOf(ids, size * 2);
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        void remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0)
+                return;
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        }
+
+        PostingList append(PostingList tail) {
+            if (size + tail.size > ids.length)
+                ids = Arrays.copyOf(ids, Math.max(ids.length * 2, size + tail.size));
+            System.arraycopy(tail.ids, 0, ids, size, tail.size);
+            size += tail.size;
+            return this;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+
+        int[] retain(int[] candidates) {
+            int[] retained = new int[Math.min(candidates.length, size)];
+            int count = 0;
+            for (int candidate : candidates) {
+                if (Arrays.binarySearch(ids, 0, size, candidate) >= 0)
+                    retained[count++] = candidate;
+            }
+            return Arrays.copyOf(retained, count);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.utils.TransactionCallbacks;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+@Component
+public class ItemSearchCache {
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Map<Key, Entry> entries;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private long generation;
+
+    public ItemSearchCache(MeterRegistry meterRegistry,
+                           @Value("${shareit.search.cache.max-size:1000}") int maxSize,
+                           @Value("${shareit.search.cache.ttl-ms:30000}") long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.hits = Counter.builder("shareit.search.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("shareit.search.cache").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("shareit.search.cache.evictions").register(meterRegistry);
+        Gauge.builder("shareit.search.cache.size", this, ItemSearchCache::size).register(meterRegistry);
+    }
+
+    public List<ItemDto> get(String text, Pageable pageable, Supplier<List<ItemDto>> loader) {
+        Key key = Key.of(text, pageable);
+        long loadGeneration;
+
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && !entry.isExpired(System.currentTimeMillis())) {
+                hits.increment();
+                return entry.items;
+            }
+            if (entry != null)
+                entries.remove(key);
+            misses.increment();
+            loadGeneration = generation;
+        }
+
+        List<ItemDto> items = Collections.unmodifiableList(loader.get());
+
+        synchronized (this) {
+            if (loadGeneration == generation) {
+                entries.put(key, new Entry(items, System.currentTimeMillis() + ttlMillis));
+                evictOverflow();
+            }
+        }
+        return items;
+    }
+
+    public void invalidate(Item item, String... previousTexts) {
+        if (item == null)
+            return;
+
+        Set<String> texts = new HashSet<>();
+        texts.add(normalize(item.getName()));
+        texts.add(normalize(item.getDescription()));
+        for (String previousText : previousTexts)
+            texts.add(normalize(previousText));
+
+        TransactionCallbacks.afterCommit(() -> invalidate(item.getId(), texts));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    private synchronized void invalidate(Long itemId, Set<String> texts) {
+        generation++;
+
+        // Engines match either a substring of one field or, like plainto_tsquery, every query word in any order.
+        Set<String> words = texts.stream()
+                .flatMap(text -> words(text).stream())
+                .collect(Collectors.toSet());
+        Set<String> staleTerms = entries.entrySet().stream()
+                .filter(entry -> entry.getValue().contains(itemId)
+                        || texts.stream().anyMatch(text -> text.contains(entry.getKey().text))
+                        || words.containsAll(words(entry.getKey().text)))
+                .map(entry -> entry.getKey().text)
+                .collect(Collectors.toSet());
+
+        entries.keySet().removeIf(key -> staleTerms.contains(key.text));
+    }
+
+    private void evictOverflow() {
+        Iterator<Key> eldest = entries.keySet().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    // Only lower-case, as the engines do: a padded query matches differently, so it must not share a key.
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase();
+    }
+
+    private static Set<String> words(String text) {
+        return WORD_SEPARATOR.splitAsStream(text)
+                .filter(word -> !word.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    private static class Key {
+        private final String text;
+        private final long offset;
+        private final int size;
+        private final String sort;
+
+        private Key(String text, long offset, int size, String sort) {
+            this.text = text;
+            this.offset = offset;
+            this.size = size;
+            this.sort = sort;
+        }
+
+        static Key of(String text, Pageable pageable) {
+            return pageable.isPaged()
+                    ? new Key(normalize(text), pageable.getOffset(), pageable.getPageSize(), pageable.getSort().toString())
+                    : new Key(normalize(text), 0, -1, pageable.getSort().toString());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return offset == key.offset && size == key.size && text.equals(key.text) && sort.equals(key.sort);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(text, offset, size, sort);
+        }
+    }
+
+    private static class Entry {
+        private final List<ItemDto> items;
+        private final long expiresAt;
+
+        Entry(List<ItemDto> items, long expiresAt) {
+            this.items = items;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+
+        boolean contains(Long itemId) {
+            return items.stream().anyMatch(item -> Objects.equals(item.getId(), itemId));
+        }
+    }
+}
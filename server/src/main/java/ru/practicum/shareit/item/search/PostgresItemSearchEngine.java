@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "postgres")
+public class PostgresItemSearchEngine implements ItemSearchEngine {
+
+    private static final String SEARCH_QUERY = "select i.* from items i " +
+            "where i.available = true " +
+            "and (i.search_vector @@ plainto_tsquery('simple', :text) " +
+            "or lower(i.name) like concat('%', :text, '%') " +
+            "or lower(i.description) like concat('%', :text, '%')) " +
+            "order by ts_rank(i.search_vector, plainto_tsquery('simple', :text)) desc, " +
+            "greatest(similarity(lower(i.name), :text), similarity(lower(i.description), :text)) desc, " +
+            "i.id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Item> search(String text, Pageable pageable) {
+        Query query = entityManager.createNativeQuery(SEARCH_QUERY, Item.class)
+                .setParameter("text", text.toLowerCase());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return query.getResultList();
+    }
+}
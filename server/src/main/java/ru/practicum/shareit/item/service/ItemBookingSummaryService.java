@@ -0,0 +1,101 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static ru.practicum.shareit.booking.enums.BookingStatus.APPROVED;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemBookingSummaryService {
+
+    private static final int REFRESH_BATCH_SIZE = 500;
+
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+
+    @Transactional
+    public ItemBookingSummary refresh(long itemId) {
+        LocalDateTime now = LocalDateTime.now();
+
+        Optional<Booking> lastBooking = bookingRepository
+                .findFirstByItem_IdAndStatusAndEndIsBeforeOrderByEndDesc(itemId, APPROVED, now);
+        Optional<Booking> nextBooking = bookingRepository
+                .findFirstByItem_IdAndStartIsAfterOrderByEndAsc(itemId, now);
+        Optional<LocalDateTime> nextStart = bookingRepository
+                .findFirstByItem_IdAndStartIsAfterOrderByStartAsc(itemId, now)
+                .map(Booking::getStart);
+        Optional<LocalDateTime> nextApprovedEnd = bookingRepository
+                .findFirstByItem_IdAndStatusAndEndIsAfterOrderByEndAsc(itemId, APPROVED, now)
+                .map(Booking::getEnd);
+
+        ItemBookingSummary summary = ItemBookingSummary.builder()
+                .itemId(itemId)
+                .lastBookingId(lastBooking.map(Booking::getId).orElse(null))
+                .lastBookerId(lastBooking.map(booking -> booking.getBooker().getId()).orElse(null))
+                .nextBookingId(nextBooking.map(Booking::getId).orElse(null))
+                .nextBookerId(nextBooking.map(booking -> booking.getBooker().getId()).orElse(null))
+                .validUntil(Stream.of(nextStart, nextApprovedEnd)
+                        .flatMap(Optional::stream)
+                        .min(LocalDateTime::compareTo)
+                        .orElse(null))
+                .build();
+
+        summaryRepository.upsert(summary);
+        return summary;
+    }
+
+    @Transactional
+    public ItemBookingSummary findByItemId(long itemId) {
+        return summaryRepository.findById(itemId)
+                .orElseGet(() -> refresh(itemId));
+    }
+
+    @Transactional
+    public Map<Long, ItemBookingSummary> findAllByItemIds(Collection<Long> itemIds) {
+        Map<Long, ItemBookingSummary> summaries = summaryRepository.findAllByItemIdIn(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity(),
+                        (first, second) -> first, HashMap::new));
+
+        itemIds.stream()
+                .filter(itemId -> !summaries.containsKey(itemId))
+                .forEach(itemId -> summaries.put(itemId, refresh(itemId)));
+        return summaries;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.refresh-delay-ms:60000}")
+    public void refreshStale() {
+        LocalDateTime now = LocalDateTime.now();
+        Pageable batch = PageRequest.of(0, REFRESH_BATCH_SIZE);
+        int refreshed = 0;
+        List<Long> staleItemIds;
+        do {
+            // Refreshed summaries are valid past now, so the first page always holds the next batch.
+            staleItemIds = summaryRepository.findStaleItemIds(now, batch);
+            staleItemIds.forEach(this::refresh);
+            refreshed += staleItemIds.size();
+        } while (staleItemIds.size() == REFRESH_BATCH_SIZE);
+        if (refreshed > 0)
+            log.info("Обновлено сводок бронирований: {}", refreshed);
+    }
+}
@@ -5,7 +5,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
-import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
@@ -14,18 +13,23 @@ import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestFeed;
+import ru.practicum.shareit.request.service.RequestMatcher;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Transactional
@@ -35,17 +39,21 @@ import java.util.stream.Collectors;
 public class ItemServiceImpl implements ItemService {
 
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final RequestRepository requestRepository;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemRequestFeed itemRequestFeed;
+    private final RequestMatcher requestMatcher;
 
     @Transactional
     @Override
     public ItemDto save(long userId, ItemDto itemDto) {
         Item item = ItemMapper.INSTANCE.fromDto(itemDto);
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с таким id отсутствует!"));
+        User user = userExistenceCache.reference(userId, "Пользователь с таким id отсутствует!");
 
         if (itemDto.getRequestId() != null) {
             ItemRequest itemRequest = requestRepository.findById(itemDto.getRequestId())
@@ -54,8 +62,14 @@ public class ItemServiceImpl implements ItemService {
         }
 
         item.setOwner(user);
-
-        return ItemMapper.INSTANCE.toDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        itemSearchEngine.index(savedItem);
+        itemSearchCache.invalidate(savedItem);
+        if (item.getRequest() != null)
+            itemRequestFeed.putItem(item.getRequest().getId(), ItemMapper.INSTANCE.toDto(savedItem));
+        requestMatcher.submit(savedItem);
+
+        return ItemMapper.INSTANCE.toDto(savedItem);
     }
 
     @Override
@@ -63,10 +77,12 @@ public class ItemServiceImpl implements ItemService {
         Item item = itemRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Инструмент с таким id отсутствует!"));
 
-        List<Booking> bookings = bookingRepository.findBookingByItem_Id(id);
-        List<Comment> comments = commentRepository.findAllByItem_Id(id);
+        ItemBookingSummary summary = itemBookingSummaryService.findByItemId(id);
+        List<CommentDto> comments = commentRepository.findAllByItem_Id(id).stream()
+                .map(CommentMapper.INSTANCE::toDto)
+                .collect(Collectors.toList());
 
-        ItemDtoResponse itemDtoResponse = addBookingsAndComments(item, bookings, comments);
+        ItemDtoResponse itemDtoResponse = addBookingsAndComments(item, summary, comments);
 
         if (item.getOwner().getId() != userId) {
             itemDtoResponse.setLastBooking(null);
@@ -78,13 +94,21 @@ public class ItemServiceImpl implements ItemService {
 
     public List<ItemDtoResponse> getAll(long ownerId, Pageable pageable) {
         List<Item> items = itemRepository.findAllByOwnerId(ownerId, pageable);
-        List<Booking> bookings = bookingRepository.findAllByItemOwnerId(ownerId);
-        List<Comment> comments = commentRepository.findAllByItem_IdIn(items.stream()
+        if (items.isEmpty())
+            return Collections.emptyList();
+
+        List<Long> itemIds = items.stream()
                 .map(Item::getId)
-                .collect(Collectors.toList()));
+                .collect(Collectors.toList());
+        Map<Long, ItemBookingSummary> summaries = itemBookingSummaryService.findAllByItemIds(itemIds);
+        Map<Long, List<CommentDto>> commentsByItemId = commentRepository.findAllByItem_IdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper.INSTANCE::toDto, Collectors.toList())));
 
         return items.stream()
-                .map(item -> addBookingsAndComments(item, bookings, comments))
+                .map(item -> addBookingsAndComments(item,
+                        summaries.get(item.getId()),
+                        commentsByItemId.getOrDefault(item.getId(), Collections.emptyList())))
                 .collect(Collectors.toList());
     }
 
@@ -97,6 +121,8 @@ public class ItemServiceImpl implements ItemService {
         if (itemToUpdate.getOwner() != null && itemToUpdate.getOwner().getId() != userId)
             throw new NotFoundException("Нет подходящего инструмента для этого пользователя");
 
+        String previousName = itemToUpdate.getName();
+        String previousDescription = itemToUpdate.getDescription();
         if (itemDto.getName() != null)
             itemToUpdate.setName(itemDto.getName());
         if (itemDto.getDescription() != null)
@@ -104,23 +130,27 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getAvailable() != null)
             itemToUpdate.setAvailable(itemDto.getAvailable());
 
-        return ItemMapper.INSTANCE.toDto(itemRepository.save(itemToUpdate));
+        Item updatedItem = itemRepository.save(itemToUpdate);
+        itemSearchEngine.index(updatedItem);
+        itemSearchCache.invalidate(updatedItem, previousName, previousDescription);
+        if (itemToUpdate.getRequest() != null)
+            itemRequestFeed.putItem(itemToUpdate.getRequest().getId(), ItemMapper.INSTANCE.toDto(updatedItem));
+        requestMatcher.submit(updatedItem);
+
+        return ItemMapper.INSTANCE.toDto(updatedItem);
     }
 
     @Override
     public List<ItemDto> getSearchResults(String text, Pageable pageable) {
-        List<Item> items = itemRepository.searchByText(text.toLowerCase(), pageable);
-
-        return items.stream()
+        return itemSearchCache.get(text, pageable, () -> itemSearchEngine.search(text, pageable).stream()
                 .map(ItemMapper.INSTANCE::toDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Transactional
     @Override
     public CommentDto postComment(long userId, long itemId, CommentDto commentDto) {
-        final User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с таким id отсутствует!"));
+        final User user = userExistenceCache.reference(userId, "Пользователь с таким id отсутствует!");
         final Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Инструмент с таким id отсутствует!"));
         final Booking booking = bookingRepository.findFirstByItem_IdAndBooker_Id(itemId, userId)
@@ -132,27 +162,22 @@ public class ItemServiceImpl implements ItemService {
         return CommentMapper.INSTANCE.toDto(commentRepository.save(comment));
     }
 
-    private static ItemDtoResponse addBookingsAndComments(Item item, List<Booking> bookings, List<Comment> comments) {
-
-        Optional<Booking> nextBooking = bookings.stream()
-                .filter(booking -> booking.getItem().getId().equals(item.getId()))
-                .filter(booking -> booking.getStart().isAfter(LocalDateTime.now()))
-                .min(Comparator.comparing(Booking::getEnd));
+    private static ItemDtoResponse addBookingsAndComments(Item item,
+                                                          ItemBookingSummary summary,
+                                                          List<CommentDto> comments) {
+        BookingDtoShort nextBookingShort = toDtoShort(summary.getNextBookingId(), summary.getNextBookerId());
+        BookingDtoShort lastBookingShort = toDtoShort(summary.getLastBookingId(), summary.getLastBookerId());
 
-        Optional<Booking> lastBooking = bookings.stream()
-                .filter(booking -> booking.getStatus().equals(BookingStatus.APPROVED))
-                .filter(booking -> booking.getItem().getId().equals(item.getId()))
-                .filter(booking -> booking.getEnd().isBefore(LocalDateTime.now()))
-                .max(Comparator.comparing(Booking::getEnd));
-
-        List<CommentDto> itemComments = comments.stream()
-                .filter(comment -> comment.getItem().getId().equals(item.getId()))
-                .map(CommentMapper.INSTANCE::toDto)
-                .collect(Collectors.toList());
+        return ItemMapper.INSTANCE.toDtoResponse(item, nextBookingShort, lastBookingShort, comments);
+    }
 
-        BookingDtoShort nextBookingShort = BookingMapper.INSTANCE.toDtoShort(nextBooking.orElse(null));
-        BookingDtoShort lastBookingShort = BookingMapper.INSTANCE.toDtoShort(lastBooking.orElse(null));
+    private static BookingDtoShort toDtoShort(Long bookingId, Long bookerId) {
+        if (bookingId == null)
+            return null;
 
-        return ItemMapper.INSTANCE.toDtoResponse(item, nextBookingShort, lastBookingShort, itemComments);
+        return BookingDtoShort.builder()
+                .id(bookingId)
+                .bookerId(bookerId)
+                .build();
     }
 }
@@ -3,13 +3,16 @@ package ru.practicum.shareit.request.controller;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
+import static ru.practicum.shareit.booking.controller.BookingController.NEXT_CURSOR;
 import static ru.practicum.shareit.item.controller.ItemController.SHARER_USER_ID;
 
 @RestController
@@ -26,16 +29,37 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public List<ItemRequestDto> findAllById(@RequestHeader(SHARER_USER_ID) long userId) {
-        return itemRequestService.findAllByRequestorId(userId);
+    public List<ItemRequestDto> findAllById(@RequestHeader(SHARER_USER_ID) long userId,
+                                            @RequestParam(required = false, defaultValue = "0") int from,
+                                            @RequestParam(required = false, defaultValue = "10") int size,
+                                            @RequestParam(required = false) String after,
+                                            HttpServletResponse response) {
+        List<ItemRequestDto> itemRequests;
+        if (after != null) {
+            itemRequests = itemRequestService.findAllByRequestorIdAfter(userId, ItemRequestCursor.decode(after), size);
+        } else {
+            Pageable pageable = PageRequest.of(from / size, size);
+            itemRequests = itemRequestService.findAllByRequestorId(userId, pageable);
+        }
+        setNextCursor(response, itemRequests, size);
+        return itemRequests;
     }
 
     @GetMapping("/all")
     public List<ItemRequestDto> findAllByParams(@RequestHeader(SHARER_USER_ID) long userId,
                                                 @RequestParam(required = false, defaultValue = "0") int from,
-                                                @RequestParam(required = false, defaultValue = "10") int size) {
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by(Sort.Direction.ASC, "created"));
-        return itemRequestService.findAllByParams(userId, pageable);
+                                                @RequestParam(required = false, defaultValue = "10") int size,
+                                                @RequestParam(required = false) String after,
+                                                HttpServletResponse response) {
+        List<ItemRequestDto> itemRequests;
+        if (after != null) {
+            itemRequests = itemRequestService.findAllByParamsAfter(userId, ItemRequestCursor.decode(after), size);
+        } else {
+            Pageable pageable = PageRequest.of(from / size, size);
+            itemRequests = itemRequestService.findAllByParams(userId, pageable);
+        }
+        setNextCursor(response, itemRequests, size);
+        return itemRequests;
     }
 
     @GetMapping("/{requestId}")
@@ -43,4 +67,17 @@ public class ItemRequestController {
                                    @PathVariable long requestId) {
         return itemRequestService.findById(userId, requestId);
     }
+
+    @GetMapping("/{requestId}/matches")
+    public List<RequestMatchDto> findMatches(@RequestHeader(SHARER_USER_ID) long userId,
+                                             @PathVariable long requestId) {
+        return itemRequestService.findMatches(userId, requestId);
+    }
+
+    private static void setNextCursor(HttpServletResponse response, List<ItemRequestDto> itemRequests, int size) {
+        if (itemRequests.isEmpty() || itemRequests.size() < size)
+            return;
+        ItemRequestDto last = itemRequests.get(itemRequests.size() - 1);
+        response.setHeader(NEXT_CURSOR, ItemRequestCursor.of(last).encode());
+    }
 }
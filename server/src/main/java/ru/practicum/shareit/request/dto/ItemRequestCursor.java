@@ -0,0 +1,46 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+@Getter
+@AllArgsConstructor
+public class ItemRequestCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime created;
+
+    private final long id;
+
+    public static ItemRequestCursor of(ItemRequestDto itemRequestDto) {
+        return new ItemRequestCursor(itemRequestDto.getCreated(), itemRequestDto.getId());
+    }
+
+    public static ItemRequestCursor decode(String token) {
+        if (token == null || token.isBlank())
+            return null;
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            if (separator < 0)
+                throw new ValidationException("Неверный курсор для просмотра!");
+            return new ItemRequestCursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Неверный курсор для просмотра!");
+        }
+    }
+
+    public String encode() {
+        String raw = created + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,7 +1,9 @@
 package ru.practicum.shareit.request.dto;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 @Mapper
@@ -14,4 +16,7 @@ public interface ItemRequestMapper {
 
     ItemRequest fromDto(ItemRequestDto itemRequestDto);
 
+    @Mapping(target = "owner", ignore = true)
+    ItemDto toItemDto(RequestItemRow row);
+
 }
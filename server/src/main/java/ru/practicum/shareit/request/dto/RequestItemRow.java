@@ -0,0 +1,15 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class RequestItemRow {
+
+    private final long requestId;
+    private final long id;
+    private final String name;
+    private final String description;
+    private final Boolean available;
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequestMatchDto {
+
+    private Long itemId;
+
+    private String name;
+
+    private String description;
+
+    private Boolean available;
+
+    private Double score;
+
+    private LocalDateTime created;
+}
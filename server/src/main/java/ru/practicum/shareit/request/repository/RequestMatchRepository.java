@@ -0,0 +1,26 @@
+package ru.practicum.shareit.request.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
+import ru.practicum.shareit.request.model.RequestMatch;
+
+import java.util.List;
+
+public interface RequestMatchRepository extends JpaRepository<RequestMatch, Long> {
+
+    List<RequestMatch> findAllByItemId(long itemId);
+
+    @Query("select new ru.practicum.shareit.request.dto.RequestMatchDto(i.id, i.name, i.description, i.available, m.score, m.created) " +
+            "from RequestMatch m, Item i " +
+            "where i.id = m.itemId " +
+            "and m.requestId = ?1 " +
+            "and i.available = true " +
+            "order by m.score desc, m.itemId")
+    List<RequestMatchDto> findAllDtoByRequestId(long requestId);
+
+    @Modifying
+    @Query("delete from RequestMatch m where m.itemId = ?1")
+    void deleteAllByItemId(long itemId);
+}
@@ -1,13 +1,44 @@
 package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface RequestRepository extends JpaRepository<ItemRequest, Long> {
-    List<ItemRequest> findAllByRequestorId(long requestorId);
+    @EntityGraph(attributePaths = "requestor")
+    Optional<ItemRequest> findById(Long id);
 
-    List<ItemRequest> findAllByRequestorIdNotIn(List<Long> userId, Pageable paging);
+    @EntityGraph(attributePaths = "requestor")
+    List<ItemRequest> findAllByRequestorIdOrderByCreatedDescIdDesc(long requestorId, Pageable paging);
+
+    @EntityGraph(attributePaths = "requestor")
+    @Query("select r from ItemRequest r " +
+            "where r.requestor.id = ?1 " +
+            "and (r.created < ?2 or (r.created = ?2 and r.id < ?3)) " +
+            "order by r.created desc, r.id desc")
+    List<ItemRequest> findAllByRequestorIdBefore(long requestorId, LocalDateTime created, long id, Pageable paging);
+
+    @EntityGraph(attributePaths = "requestor")
+    List<ItemRequest> findAllByRequestorIdNotOrderByCreatedDescIdDesc(long requestorId, Pageable paging);
+
+    @EntityGraph(attributePaths = "requestor")
+    @Query("select r from ItemRequest r " +
+            "where r.requestor.id <> ?1 " +
+            "and (r.created < ?2 or (r.created = ?2 and r.id < ?3)) " +
+            "order by r.created desc, r.id desc")
+    List<ItemRequest> findAllByRequestorIdNotBefore(long requestorId, LocalDateTime created, long id, Pageable paging);
+
+    @EntityGraph(attributePaths = "requestor")
+    List<ItemRequest> findAllByOrderByCreatedDescIdDesc(Pageable paging);
+
+    @EntityGraph(attributePaths = "requestor")
+    @Query("select r from ItemRequest r " +
+            "where not exists (select i.id from Item i where i.request = r)")
+    List<ItemRequest> findAllOpen();
 }
\ No newline at end of file
@@ -0,0 +1,209 @@
+package ru.practicum.shareit.request.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.utils.TransactionCallbacks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class ItemRequestFeed {
+
+    private static final Comparator<ItemRequestDto> NEWEST_FIRST = Comparator
+            .comparing(ItemRequestDto::getCreated, Comparator.reverseOrder())
+            .thenComparing(ItemRequestDto::getId, Comparator.reverseOrder());
+
+    private final ItemRequestDto[] slots;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int head;
+    private int count;
+    private boolean complete;
+
+    public ItemRequestFeed(@Value("${shareit.requests.feed-size:100}") int capacity) {
+        this.slots = new ItemRequestDto[capacity];
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    public void load(List<ItemRequestDto> newest) {
+        lock.writeLock().lock();
+        try {
+            head = 0;
+            count = 0;
+            for (ItemRequestDto itemRequestDto : newest) {
+                if (count == slots.length)
+                    break;
+                slots[count++] = copy(itemRequestDto);
+            }
+            complete = newest.size() < slots.length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void add(ItemRequestDto itemRequestDto) {
+        ItemRequestDto snapshot = copy(itemRequestDto);
+        TransactionCallbacks.afterCommit(() -> insert(snapshot));
+    }
+
+    public void putItem(long requestId, ItemDto itemDto) {
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                for (int i = 0; i < count; i++) {
+                    ItemRequestDto itemRequestDto = get(i);
+                    if (itemRequestDto.getId() != requestId)
+                        continue;
+                    List<ItemDto> items = itemRequestDto.getItems();
+                    items.removeIf(item -> item.getId() == itemDto.getId());
+                    items.add(itemDto);
+                    items.sort(Comparator.comparingLong(ItemDto::getId));
+                    return;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void updateRequestor(UserDto requestor) {
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                for (int i = 0; i < count; i++) {
+                    ItemRequestDto itemRequestDto = get(i);
+                    if (isRequestedBy(itemRequestDto, requestor.getId()))
+                        itemRequestDto.setRequestor(requestor);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void removeRequestor(long userId) {
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                int kept = 0;
+                for (int i = 0; i < count; i++) {
+                    ItemRequestDto itemRequestDto = get(i);
+                    if (!isRequestedBy(itemRequestDto, userId))
+                        set(kept++, itemRequestDto);
+                }
+                for (int i = kept; i < count; i++)
+                    set(i, null);
+                count = kept;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public Optional<List<ItemRequestDto>> page(long userId, long offset, int size) {
+        lock.readLock().lock();
+        try {
+            return collect(userId, 0, offset, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<List<ItemRequestDto>> pageAfter(long userId, ItemRequestCursor after, int size) {
+        lock.readLock().lock();
+        try {
+            int from = 0;
+            while (from < count && !isOlder(get(from), after.getCreated(), after.getId()))
+                from++;
+            if (from == count && !complete)
+                return Optional.empty();
+            return collect(userId, from, 0, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Optional<List<ItemRequestDto>> collect(long userId, int from, long skip, int size) {
+        List<ItemRequestDto> result = new ArrayList<>(Math.min(size, count));
+        for (int i = from; i < count && result.size() < size; i++) {
+            ItemRequestDto itemRequestDto = get(i);
+            if (isRequestedBy(itemRequestDto, userId))
+                continue;
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            result.add(copy(itemRequestDto));
+        }
+
+        if (result.size() < size && !complete)
+            return Optional.empty();
+        return Optional.of(result);
+    }
+
+    private void insert(ItemRequestDto itemRequestDto) {
+        lock.writeLock().lock();
+        try {
+            int position = 0;
+            while (position < count && NEWEST_FIRST.compare(get(position), itemRequestDto) < 0)
+                position++;
+            if (position == slots.length) {
+                complete = false;
+                return;
+            }
+
+            if (count == slots.length) {
+                complete = false;
+            } else {
+                count++;
+            }
+            head = (head - 1 + slots.length) % slots.length;
+            for (int i = 0; i < position; i++)
+                set(i, get(i + 1));
+            set(position, itemRequestDto);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private ItemRequestDto get(int index) {
+        return slots[(head + index) % slots.length];
+    }
+
+    private void set(int index, ItemRequestDto itemRequestDto) {
+        slots[(head + index) % slots.length] = itemRequestDto;
+    }
+
+    private static boolean isRequestedBy(ItemRequestDto itemRequestDto, long userId) {
+        return itemRequestDto.getRequestor() != null && itemRequestDto.getRequestor().getId() == userId;
+    }
+
+    private static boolean isOlder(ItemRequestDto itemRequestDto, LocalDateTime created, long id) {
+        int byCreated = itemRequestDto.getCreated().compareTo(created);
+        return byCreated < 0 || (byCreated == 0 && itemRequestDto.getId() < id);
+    }
+
+    private static ItemRequestDto copy(ItemRequestDto itemRequestDto) {
+        return ItemRequestDto.builder()
+                .id(itemRequestDto.getId())
+                .description(itemRequestDto.getDescription())
+                .requestor(itemRequestDto.getRequestor())
+                .created(itemRequestDto.getCreated())
+                .items(itemRequestDto.getItems() == null
+                        ? new ArrayList<>()
+                        : new ArrayList<>(itemRequestDto.getItems()))
+                .build();
+    }
+}
@@ -1,7 +1,9 @@
 package ru.practicum.shareit.request.service;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 
 import java.util.List;
 
@@ -9,9 +11,15 @@ public interface ItemRequestService {
 
     ItemRequestDto save(ItemRequestDto itemRequestDto, long userId);
 
-    List<ItemRequestDto> findAllByRequestorId(long userId);
+    List<ItemRequestDto> findAllByRequestorId(long userId, Pageable pageable);
+
+    List<ItemRequestDto> findAllByRequestorIdAfter(long userId, ItemRequestCursor after, int size);
 
     List<ItemRequestDto> findAllByParams(long userId, Pageable pageable);
 
+    List<ItemRequestDto> findAllByParamsAfter(long userId, ItemRequestCursor after, int size);
+
     ItemRequestDto findById(long userId, long requestId);
+
+    List<RequestMatchDto> findMatches(long userId, long requestId);
 }
@@ -1,24 +1,32 @@
 package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.NotFoundException;
-import ru.practicum.shareit.item.dto.ItemMapper;
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
+import ru.practicum.shareit.request.dto.RequestItemRow;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.RequestMatchRepository;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Transactional
 @Service
@@ -26,79 +34,131 @@ import java.util.stream.Collectors;
 public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final RequestRepository requestRepository;
-    private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final ItemRepository itemRepository;
+    private final ItemRequestFeed itemRequestFeed;
+    private final RequestMatcher requestMatcher;
+    private final RequestMatchRepository requestMatchRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpFeed() {
+        itemRequestFeed.load(getItemRequestDtosWithItems(
+                requestRepository.findAllByOrderByCreatedDescIdDesc(PageRequest.of(0, itemRequestFeed.capacity()))));
+    }
 
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpMatcher() {
+        requestMatcher.load(requestRepository.findAllOpen());
+    }
 
     @Override
     public ItemRequestDto save(ItemRequestDto itemRequestDto, long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не существует!"));
+        User user = userExistenceCache.reference(userId, "Пользователь не существует!");
         ItemRequest itemRequest = ItemRequestMapper.INSTANCE.fromDto(itemRequestDto);
 
         itemRequest.setRequestor(user);
         itemRequest.setCreated(LocalDateTime.now());
 
-        return ItemRequestMapper.INSTANCE.toDto(requestRepository.save(itemRequest));
+        ItemRequest savedItemRequest = requestRepository.save(itemRequest);
+        ItemRequestDto savedItemRequestDto = ItemRequestMapper.INSTANCE.toDto(savedItemRequest);
+        itemRequestFeed.add(savedItemRequestDto);
+        requestMatcher.addRequest(savedItemRequest);
+
+        return savedItemRequestDto;
     }
 
     @Override
-    public List<ItemRequestDto> findAllByRequestorId(long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не существует!"));
-        List<ItemRequest> allItemRequests = requestRepository.findAllByRequestorId(userId);
+    public List<ItemRequestDto> findAllByRequestorId(long userId, Pageable pageable) {
+        userExistenceCache.verify(userId, "Пользователь не существует!");
 
-        List<Long> requestsIds = allItemRequests.stream()
-                .map(ItemRequest::getId)
-                .collect(Collectors.toList());
-
-        List<Item> allItems = itemRepository.findAllByRequestIdIn(requestsIds);
+        return getItemRequestDtosWithItems(requestRepository.findAllByRequestorIdOrderByCreatedDescIdDesc(userId,
+                pageable));
+    }
 
-        return getItemRequestDtosWithItems(allItemRequests, allItems);
+    @Override
+    public List<ItemRequestDto> findAllByRequestorIdAfter(long userId, ItemRequestCursor after, int size) {
+        if (size <= 0)
+            throw new ValidationException("Неправильно указанны параметры для просмотра!");
+        if (after == null)
+            return findAllByRequestorId(userId, PageRequest.of(0, size));
+        if (after.getCreated() == null)
+            throw new ValidationException("Неверный курсор для просмотра!");
+        userExistenceCache.verify(userId, "Пользователь не существует!");
+
+        return getItemRequestDtosWithItems(requestRepository.findAllByRequestorIdBefore(userId,
+                after.getCreated(), after.getId(), PageRequest.of(0, size)));
     }
 
     @Override
     public List<ItemRequestDto> findAllByParams(long userId, Pageable pageable) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не существует!"));
-        List<ItemRequest> allItemRequests = requestRepository.findAllByRequestorIdNotIn(Collections.singletonList(userId),
-                pageable);
-        List<Long> requestsIds = allItemRequests.stream()
-                .map(ItemRequest::getId)
-                .collect(Collectors.toList());
+        userExistenceCache.verify(userId, "Пользователь не существует!");
 
-        List<Item> allItems = itemRepository.findAllByRequestIdIn(requestsIds);
+        return itemRequestFeed.page(userId, pageable.getOffset(), pageable.getPageSize())
+                .orElseGet(() -> getItemRequestDtosWithItems(
+                        requestRepository.findAllByRequestorIdNotOrderByCreatedDescIdDesc(userId, pageable)));
+    }
 
-        return getItemRequestDtosWithItems(allItemRequests, allItems);
+    @Override
+    public List<ItemRequestDto> findAllByParamsAfter(long userId, ItemRequestCursor after, int size) {
+        if (size <= 0)
+            throw new ValidationException("Неправильно указанны параметры для просмотра!");
+        if (after == null)
+            return findAllByParams(userId, PageRequest.of(0, size));
+        if (after.getCreated() == null)
+            throw new ValidationException("Неверный курсор для просмотра!");
+        userExistenceCache.verify(userId, "Пользователь не существует!");
+
+        return itemRequestFeed.pageAfter(userId, after, size)
+                .orElseGet(() -> getItemRequestDtosWithItems(requestRepository.findAllByRequestorIdNotBefore(userId,
+                        after.getCreated(), after.getId(), PageRequest.of(0, size))));
     }
 
     @Override
     public ItemRequestDto findById(long userId, long requestId) {
         ItemRequest itemRequest = requestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException("Запрос не существует!"));
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не существует!"));
+        userExistenceCache.verify(userId, "Пользователь не существует!");
 
-        List<Item> allItems = itemRepository.findAllByRequestId(requestId);
-        ItemRequestDto itemRequestDto = ItemRequestMapper.INSTANCE.toDto(itemRequest);
+        return getItemRequestDtosWithItems(Collections.singletonList(itemRequest)).get(0);
+    }
 
-        itemRequestDto.setItems(allItems.stream()
-                .map(ItemMapper.INSTANCE::toDto)
-                .collect(Collectors.toList()));
+    @Override
+    public List<RequestMatchDto> findMatches(long userId, long requestId) {
+        ItemRequest itemRequest = requestRepository.findById(requestId)
+                .orElseThrow(() -> new NotFoundException("Запрос не существует!"));
+        if (itemRequest.getRequestor().getId() != userId)
+            throw new NotFoundException("Запрос не существует!");
 
-        return itemRequestDto;
+        return requestMatchRepository.findAllDtoByRequestId(requestId);
     }
 
-    private static List<ItemRequestDto> getItemRequestDtosWithItems(List<ItemRequest> allItemRequests, List<Item> allItems) {
-        List<ItemRequestDto> itemRequestDtos = allItemRequests.stream()
-                .map(ItemRequestMapper.INSTANCE::toDto)
-                .collect(Collectors.toList());
+    private List<ItemRequestDto> getItemRequestDtosWithItems(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty())
+            return Collections.emptyList();
+
+        List<ItemRequestDto> itemRequestDtos = new ArrayList<>(itemRequests.size());
+        for (ItemRequest itemRequest : itemRequests) {
+            ItemRequestDto itemRequestDto = ItemRequestMapper.INSTANCE.toDto(itemRequest);
+            itemRequestDto.setItems(new ArrayList<>());
+            itemRequestDtos.add(itemRequestDto);
+        }
+
+        ItemRequestDto[] byId = itemRequestDtos.toArray(new ItemRequestDto[0]);
+        Arrays.sort(byId, Comparator.comparingLong(ItemRequestDto::getId));
+        long[] ids = new long[byId.length];
+        for (int i = 0; i < byId.length; i++)
+            ids[i] = byId[i].getId();
+
+        List<Long> requestIds = new ArrayList<>(ids.length);
+        for (long id : ids)
+            requestIds.add(id);
+
+        for (RequestItemRow row : itemRepository.findAllRowsByRequestIdIn(requestIds)) {
+            int position = Arrays.binarySearch(ids, row.getRequestId());
+            if (position >= 0)
+                byId[position].getItems().add(ItemRequestMapper.INSTANCE.toItemDto(row));
+        }
 
-        itemRequestDtos.forEach(itemRequestDto ->
-                itemRequestDto.setItems(allItems.stream()
-                        .filter(item -> item.getRequest().getId().equals(itemRequestDto.getId()))
-                        .map(ItemMapper.INSTANCE::toDto)
-                        .collect(Collectors.toList())));
         return itemRequestDtos;
     }
-}
\ No newline at end of file
+}
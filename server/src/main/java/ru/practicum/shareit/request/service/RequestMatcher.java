@@ -0,0 +1,288 @@
+package ru.practicum.shareit.request.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestMatch;
+import ru.practicum.shareit.request.repository.RequestMatchRepository;
+import ru.practicum.shareit.utils.TransactionCallbacks;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class RequestMatcher {
+
+    private static final int MIN_TERM_LENGTH = 3;
+    private static final int STEM_LENGTH = 5;
+
+    private final RequestMatchRepository requestMatchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final double minScore;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Set<Long>> requestIdsByTerm = new HashMap<>();
+    private final Map<Long, OpenRequest> openRequests = new HashMap<>();
+
+    @Autowired
+    public RequestMatcher(RequestMatchRepository requestMatchRepository,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${shareit.requests.matching.min-score:0.5}") double minScore,
+                          @Value("${shareit.requests.matching.queue-size:1000}") int queueSize) {
+        this(requestMatchRepository,
+                new TransactionTemplate(transactionManager),
+                new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                        new LinkedBlockingQueue<>(queueSize),
+                        runnable -> new Thread(runnable, "request-matcher"),
+                        new DropOldestPolicy(Counter.builder("shareit.requests.matching.dropped")
+                                .register(meterRegistry))),
+                minScore);
+    }
+
+    RequestMatcher(RequestMatchRepository requestMatchRepository,
+                   TransactionTemplate transactionTemplate,
+                   ExecutorService executor,
+                   double minScore) {
+        this.requestMatchRepository = requestMatchRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+        this.minScore = minScore;
+    }
+
+    public void load(List<ItemRequest> requests) {
+        lock.writeLock().lock();
+        try {
+            requestIdsByTerm.clear();
+            openRequests.clear();
+            requests.forEach(this::open);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addRequest(ItemRequest itemRequest) {
+        OpenRequest openRequest = OpenRequest.of(itemRequest);
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                open(openRequest);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void submit(Item item) {
+        ItemSnapshot snapshot = ItemSnapshot.of(item);
+        TransactionCallbacks.afterCommit(() -> {
+            try {
+                executor.execute(new MatchTask(snapshot));
+            } catch (RejectedExecutionException e) {
+                log.warn("Сопоставление предмета {} с запросами пропущено", snapshot.id);
+            }
+        });
+    }
+
+    void match(ItemSnapshot item) {
+        if (item.requestId != null)
+            close(item.requestId);
+
+        Map<Long, Double> scores = item.available ? score(item) : Collections.emptyMap();
+        try {
+            transactionTemplate.executeWithoutResult(status -> record(item.id, scores));
+        } catch (RuntimeException e) {
+            log.warn("Не удалось сохранить совпадения для предмета {}", item.id, e);
+        }
+    }
+
+    Map<Long, Double> score(ItemSnapshot item) {
+        Map<Long, Integer> hits = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (String term : item.terms) {
+                for (Long requestId : requestIdsByTerm.getOrDefault(term, Collections.emptySet()))
+                    hits.merge(requestId, 1, Integer::sum);
+            }
+
+            Map<Long, Double> scores = new HashMap<>();
+            hits.forEach((requestId, count) -> {
+                OpenRequest openRequest = openRequests.get(requestId);
+                if (openRequest.requestorId == item.ownerId)
+                    return;
+                double score = (double) count / openRequest.terms.size();
+                if (score >= minScore)
+                    scores.put(requestId, score);
+            });
+            return scores;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void record(long itemId, Map<Long, Double> scores) {
+        Map<Long, LocalDateTime> matchedAt = requestMatchRepository.findAllByItemId(itemId).stream()
+                .collect(Collectors.toMap(RequestMatch::getRequestId, RequestMatch::getCreated));
+        requestMatchRepository.deleteAllByItemId(itemId);
+
+        LocalDateTime now = LocalDateTime.now();
+        requestMatchRepository.saveAll(scores.entrySet().stream()
+                .map(entry -> RequestMatch.builder()
+                        .requestId(entry.getKey())
+                        .itemId(itemId)
+                        .score(entry.getValue())
+                        .created(matchedAt.getOrDefault(entry.getKey(), now))
+                        .build())
+                .collect(Collectors.toList()));
+    }
+
+    private void open(ItemRequest itemRequest) {
+        open(OpenRequest.of(itemRequest));
+    }
+
+    private void open(OpenRequest openRequest) {
+        if (openRequest.terms.isEmpty())
+            return;
+        openRequests.put(openRequest.id, openRequest);
+        openRequest.terms.forEach(term -> requestIdsByTerm.computeIfAbsent(term, key -> new HashSet<>())
+                .add(openRequest.id));
+    }
+
+    private void close(long requestId) {
+        lock.writeLock().lock();
+        try {
+            OpenRequest openRequest = openRequests.remove(requestId);
+            if (openRequest == null)
+                return;
+            for (String term : openRequest.terms) {
+                Set<Long> requestIds = requestIdsByTerm.get(term);
+                requestIds.remove(requestId);
+                if (requestIds.isEmpty())
+                    requestIdsByTerm.remove(term);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static Set<String> terms(String... texts) {
+        Set<String> terms = new HashSet<>();
+        for (String text : texts) {
+            if (text == null)
+                continue;
+            for (String token : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+                if (token.length() >= MIN_TERM_LENGTH)
+                    terms.add(token.length() > STEM_LENGTH ? token.substring(0, STEM_LENGTH) : token);
+            }
+        }
+        return terms;
+    }
+
+    private class MatchTask implements Runnable {
+        private final ItemSnapshot item;
+
+        private MatchTask(ItemSnapshot item) {
+            this.item = item;
+        }
+
+        @Override
+        public void run() {
+            match(item);
+        }
+    }
+
+    static class DropOldestPolicy implements RejectedExecutionHandler {
+        private final Counter dropped;
+
+        DropOldestPolicy(Counter dropped) {
+            this.dropped = dropped;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            if (executor.isShutdown())
+                throw new RejectedExecutionException("Сопоставление с запросами остановлено");
+
+            Runnable oldest = executor.getQueue().poll();
+            if (oldest != null) {
+                dropped.increment();
+                if (oldest instanceof MatchTask)
+                    log.warn("Очередь сопоставления переполнена, предмет {} пропущен", ((MatchTask) oldest).item.id);
+                else
+                    log.warn("Очередь сопоставления переполнена, задача пропущена");
+            }
+            executor.execute(task);
+        }
+    }
+
+    private static class OpenRequest {
+        private final long id;
+        private final long requestorId;
+        private final Set<String> terms;
+
+        private OpenRequest(long id, long requestorId, Set<String> terms) {
+            this.id = id;
+            this.requestorId = requestorId;
+            this.terms = terms;
+        }
+
+        static OpenRequest of(ItemRequest itemRequest) {
+            return new OpenRequest(itemRequest.getId(),
+                    itemRequest.getRequestor().getId(),
+                    terms(itemRequest.getDescription()));
+        }
+    }
+
+    static class ItemSnapshot {
+        private final long id;
+        private final long ownerId;
+        private final Long requestId;
+        private final boolean available;
+        private final Set<String> terms;
+
+        ItemSnapshot(long id, long ownerId, Long requestId, boolean available, Set<String> terms) {
+            this.id = id;
+            this.ownerId = ownerId;
+            this.requestId = requestId;
+            this.available = available;
+            this.terms = terms;
+        }
+
+        static ItemSnapshot of(Item item) {
+            return new ItemSnapshot(item.getId(),
+                    item.getOwner().getId(),
+                    item.getRequest() == null ? null : item.getRequest().getId(),
+                    Boolean.TRUE.equals(item.getAvailable()),
+                    terms(item.getName(), item.getDescription()));
+        }
+    }
+}
@@ -1,18 +1,35 @@
 package ru.practicum.shareit.user.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.user.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
+import static ru.practicum.shareit.booking.controller.BookingController.NEXT_CURSOR;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping(path = "/users")
 public class UserController {
 
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final int STREAM_FLUSH_EVERY = 100;
+
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public UserDto create(@RequestBody UserDto userDto) {
@@ -25,8 +42,45 @@ public class UserController {
     }
 
     @GetMapping
-    public List<UserDto> getAll() {
-        return userService.findAll();
+    public List<UserDto> getAll(@RequestParam(required = false) Integer from,
+                                @RequestParam(required = false) Integer size,
+                                @RequestParam(required = false) Long after,
+                                HttpServletResponse response) {
+        List<UserDto> users;
+        if (after != null) {
+            size = size == null ? DEFAULT_PAGE_SIZE : size;
+            users = userService.findAllAfter(after, size);
+        } else if (size != null) {
+            from = from == null ? 0 : from;
+            users = userService.findAll(PageRequest.of(from / size, size, Sort.by(Sort.Direction.ASC, "id")));
+        } else {
+            return userService.findAll();
+        }
+
+        if (!users.isEmpty() && users.size() == size)
+            response.setHeader(NEXT_CURSOR, String.valueOf(users.get(users.size() - 1).getId()));
+        return users;
+    }
+
+    @GetMapping(path = "/stream", produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        ObjectWriter writer = objectMapper.writerFor(UserDto.class);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_VALUE))
+                .body(out -> {
+                    int[] written = {0};
+                    userService.streamAll(user -> {
+                        try {
+                            out.write(writer.writeValueAsBytes(user));
+                            out.write('\n');
+                            if (++written[0] % STREAM_FLUSH_EVERY == 0)
+                                out.flush();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    out.flush();
+                });
     }
 
     @PatchMapping("/{id}")
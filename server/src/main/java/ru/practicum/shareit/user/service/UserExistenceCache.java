@@ -0,0 +1,134 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utils.TransactionCallbacks;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class UserExistenceCache {
+
+    private final UserRepository userRepository;
+    private final int maxSize;
+    private final long negativeTtlMillis;
+    private final Map<Long, Boolean> known;
+    private final Map<Long, Long> absent;
+    private final Counter hits;
+    private final Counter negativeHits;
+    private final Counter misses;
+    private long generation;
+
+    public UserExistenceCache(UserRepository userRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${shareit.users.cache.max-size:10000}") int maxSize,
+                              @Value("${shareit.users.cache.negative-ttl-ms:5000}") long negativeTtlMillis) {
+        this.userRepository = userRepository;
+        this.maxSize = maxSize;
+        this.negativeTtlMillis = negativeTtlMillis;
+        this.known = new LinkedHashMap<>(16, 0.75f, true);
+        this.absent = new LinkedHashMap<>();
+        this.hits = Counter.builder("shareit.users.cache").tag("result", "hit").register(meterRegistry);
+        this.negativeHits = Counter.builder("shareit.users.cache").tag("result", "negative").register(meterRegistry);
+        this.misses = Counter.builder("shareit.users.cache").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("shareit.users.cache.size", this, UserExistenceCache::size).register(meterRegistry);
+    }
+
+    public void verify(long userId, String message) {
+        long loadGeneration;
+
+        synchronized (this) {
+            if (known.get(userId) != null) {
+                hits.increment();
+                return;
+            }
+            Long expiresAt = absent.get(userId);
+            if (expiresAt != null && expiresAt > System.currentTimeMillis()) {
+                negativeHits.increment();
+                throw new NotFoundException(message);
+            }
+            if (expiresAt != null)
+                absent.remove(userId);
+            misses.increment();
+            loadGeneration = generation;
+        }
+
+        boolean exists = userRepository.existsById(userId);
+
+        synchronized (this) {
+            if (loadGeneration == generation) {
+                if (exists)
+                    put(userId);
+                else
+                    putAbsent(userId);
+            }
+        }
+        if (!exists)
+            throw new NotFoundException(message);
+    }
+
+    public User reference(long userId, String message) {
+        verify(userId, message);
+        return userRepository.getReferenceById(userId);
+    }
+
+    public void add(User user) {
+        if (user == null || user.getId() == null)
+            return;
+
+        long userId = user.getId();
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (this) {
+                generation++;
+                absent.remove(userId);
+                put(userId);
+            }
+        });
+    }
+
+    public void invalidate(long userId) {
+        evict(userId);
+        TransactionCallbacks.afterCommit(() -> evict(userId));
+    }
+
+    public synchronized int size() {
+        return known.size();
+    }
+
+    public synchronized void clear() {
+        generation++;
+        known.clear();
+        absent.clear();
+    }
+
+    private synchronized void evict(long userId) {
+        generation++;
+        known.remove(userId);
+    }
+
+    private void put(long userId) {
+        known.put(userId, Boolean.TRUE);
+        trim(known);
+    }
+
+    private void putAbsent(long userId) {
+        absent.put(userId, System.currentTimeMillis() + negativeTtlMillis);
+        trim(absent);
+    }
+
+    private void trim(Map<Long, ?> map) {
+        Iterator<Long> eldest = map.keySet().iterator();
+        while (map.size() > maxSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.user.service;
 
+import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.user.UserDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
 
@@ -15,4 +17,10 @@ public interface UserService {
     void delete(long id);
 
     List<UserDto> findAll();
+
+    List<UserDto> findAll(Pageable pageable);
+
+    List<UserDto> findAllAfter(long afterId, int size);
+
+    void streamAll(Consumer<UserDto> action);
 }
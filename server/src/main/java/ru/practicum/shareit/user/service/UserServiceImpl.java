@@ -2,8 +2,12 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.request.service.ItemRequestFeed;
 import ru.practicum.shareit.user.UserDto;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -11,7 +15,9 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import javax.transaction.Transactional;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Transactional
 @Slf4j
@@ -20,13 +26,17 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
+    private final ItemRequestFeed itemRequestFeed;
 
     @Transactional
     @Override
     public UserDto save(UserDto userDto) {
         User user = UserMapper.INSTANCE.fromDto(userDto);
+        User savedUser = userRepository.save(user);
+        userExistenceCache.add(savedUser);
 
-        return UserMapper.INSTANCE.toDto(userRepository.save(user));
+        return UserMapper.INSTANCE.toDto(savedUser);
     }
 
     @Override
@@ -44,6 +54,30 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<UserDto> findAll(Pageable pageable) {
+        return userRepository.findAllBy(pageable).stream()
+                .map(UserMapper.INSTANCE::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<UserDto> findAllAfter(long afterId, int size) {
+        if (size <= 0)
+            throw new ValidationException("Неправильно указанны параметры для просмотра!");
+
+        return userRepository.findAllByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, size)).stream()
+                .map(UserMapper.INSTANCE::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void streamAll(Consumer<UserDto> action) {
+        try (Stream<UserDto> users = userRepository.streamAll()) {
+            users.forEach(action);
+        }
+    }
+
     @Transactional
     @Override
     public UserDto update(long userId, UserDto userDto) {
@@ -56,12 +90,17 @@ public class UserServiceImpl implements UserService {
             userToUpdate.setEmail(userDto.getEmail());
         }
 
-        return UserMapper.INSTANCE.toDto(userRepository.save(userToUpdate));
+        UserDto updatedUser = UserMapper.INSTANCE.toDto(userRepository.save(userToUpdate));
+        itemRequestFeed.updateRequestor(updatedUser);
+
+        return updatedUser;
     }
 
     @Transactional
     @Override
     public void delete(long id) {
         userRepository.deleteById(id);
+        userExistenceCache.invalidate(id);
+        itemRequestFeed.removeRequestor(id);
     }
 }
\ No newline at end of file
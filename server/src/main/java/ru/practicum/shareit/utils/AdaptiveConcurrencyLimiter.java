@@ -0,0 +1,110 @@
+package ru.practicum.shareit.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gradient concurrency limiter: the limit follows {@code limit * longRtt / shortRtt + sqrt(limit)},
+ * so it shrinks as soon as recent latency rises above the long-term baseline (requests start queueing
+ * on the connection pool) and grows back while latency stays flat.
+ */
+@Component
+@ConditionalOnProperty(value = "shareit.concurrency.enabled", matchIfMissing = true)
+public class AdaptiveConcurrencyLimiter {
+    private static final double SHORT_WINDOW = 10;
+    private static final double LONG_WINDOW = 600;
+    private static final double RTT_TOLERANCE = 1.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter accepted;
+    private final Counter rejected;
+    private volatile double limit;
+    private double shortRtt;
+    private double longRtt;
+    private long samples;
+
+    public AdaptiveConcurrencyLimiter(MeterRegistry meterRegistry,
+                                      @Value("${shareit.concurrency.initial-limit:20}") int initialLimit,
+                                      @Value("${shareit.concurrency.min-limit:4}") int minLimit,
+                                      @Value("${shareit.concurrency.max-limit:200}") int maxLimit,
+                                      @Value("${shareit.concurrency.smoothing:0.2}") double smoothing) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.accepted = Counter.builder("shareit.concurrency.requests")
+                .tag("result", "accepted")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("shareit.concurrency.requests")
+                .tag("result", "rejected")
+                .register(meterRegistry);
+        Gauge.builder("shareit.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit).register(meterRegistry);
+        Gauge.builder("shareit.concurrency.in-flight", inFlight, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * @return number of requests in flight including this one, or 0 if the request has to be shed
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                rejected.increment();
+                return 0;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                accepted.increment();
+                return current + 1;
+            }
+        }
+    }
+
+    public void release(long rttNanos, int inFlightAtStart) {
+        inFlight.decrementAndGet();
+        onSample(rttNanos, inFlightAtStart);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        if (rttNanos <= 0)
+            return;
+
+        samples++;
+        if (samples == 1) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+            return;
+        }
+        shortRtt += (rttNanos - shortRtt) * 2 / (SHORT_WINDOW + 1);
+        longRtt += (rttNanos - longRtt) * 2 / (Math.min(samples, LONG_WINDOW) + 1);
+
+        // Baseline has drifted well above current latency: let it come back down faster.
+        if (longRtt / shortRtt > 2)
+            longRtt *= 0.95;
+
+        // Not enough load to tell whether a higher limit would hurt latency.
+        if (inFlightAtStart < limit / 2)
+            return;
+
+        double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRtt / shortRtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        newLimit = limit * (1 - smoothing) + newLimit * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+}
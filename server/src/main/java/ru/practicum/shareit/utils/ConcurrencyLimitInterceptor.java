@@ -0,0 +1,65 @@
+package ru.practicum.shareit.utils;
+
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+    /**
+     * Marks a 503 as deliberately shed, so callers can tell it from the server failing.
+     */
+    public static final String LOAD_SHED_HEADER = "X-Load-Shed";
+
+    private static final String STARTED_AT = ConcurrencyLimitInterceptor.class.getName() + ".startedAt";
+    private static final String IN_FLIGHT = ConcurrencyLimitInterceptor.class.getName() + ".inFlight";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public ConcurrencyLimitInterceptor(AdaptiveConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST)
+            return true;
+
+        int inFlight = limiter.tryAcquire();
+        if (inFlight == 0) {
+            response.setHeader(LOAD_SHED_HEADER, "true");
+            throw new ServiceUnavailableException("Сервер перегружен, повторите запрос позже!");
+        }
+
+        request.setAttribute(STARTED_AT, System.nanoTime());
+        request.setAttribute(IN_FLIGHT, inFlight);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request,
+                                HttpServletResponse response,
+                                Object handler,
+                                Exception ex) {
+        release(request, true);
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request,
+                                               HttpServletResponse response,
+                                               Object handler) {
+        release(request, false);
+    }
+
+    private void release(HttpServletRequest request, boolean sample) {
+        Object startedAt = request.getAttribute(STARTED_AT);
+        if (startedAt == null)
+            return;
+
+        request.removeAttribute(STARTED_AT);
+        long rttNanos = sample ? System.nanoTime() - (long) startedAt : 0;
+        limiter.release(rttNanos, (int) request.getAttribute(IN_FLIGHT));
+    }
+}
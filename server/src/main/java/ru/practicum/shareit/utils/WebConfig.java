@@ -0,0 +1,27 @@
+package ru.practicum.shareit.utils;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<AdaptiveConcurrencyLimiter> concurrencyLimiter;
+
+    public WebConfig(ObjectProvider<AdaptiveConcurrencyLimiter> concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        AdaptiveConcurrencyLimiter limiter = concurrencyLimiter.getIfAvailable();
+        if (limiter == null)
+            return;
+
+        registry.addInterceptor(new ConcurrencyLimitInterceptor(limiter))
+                .addPathPatterns("/bookings/**", "/items/**")
+                .excludePathPatterns("/bookings/events");
+    }
+}
@@ -0,0 +1,7 @@
+create extension if not exists pg_trgm;
+alter table items
+    add column if not exists search_vector tsvector
+        generated always as (to_tsvector('simple', name || ' ' || description)) stored;
+create index if not exists items_search_vector_idx on items using gin (search_vector);
+create index if not exists items_name_trgm_idx on items using gin (lower(name) gin_trgm_ops);
+create index if not exists items_description_trgm_idx on items using gin (lower(description) gin_trgm_ops);
@@ -67,4 +67,41 @@ create table if not exists requests
         constraint requests_users_id_fk
             references users,
     created      timestamp without time zone not null
-);
\ No newline at end of file
+);
+create table if not exists item_booking_summary
+(
+    item_id         bigint not null,
+    last_booking_id bigint,
+    last_booker_id  bigint,
+    next_booking_id bigint,
+    next_booker_id  bigint,
+    valid_until     timestamp without time zone,
+    constraint pk_item_booking_summary primary key (item_id),
+    constraint item_booking_summary_items_id_fk foreign key (item_id) references items
+);
+create table if not exists request_matches
+(
+    id         bigint generated by default as identity
+        constraint pk_request_match primary key,
+    request_id bigint                      not null
+        constraint request_matches_requests_id_fk
+            references requests,
+    item_id    bigint                      not null
+        constraint request_matches_items_id_fk
+            references items,
+    score      double precision            not null,
+    created    timestamp without time zone not null,
+    constraint uq_request_match unique (request_id, item_id)
+);
+create index if not exists bookings_booker_id_start_date_idx on bookings (booker_id, start_date);
+create index if not exists bookings_booker_id_status_end_date_idx on bookings (booker_id, status, end_date);
+create index if not exists bookings_item_id_start_date_idx on bookings (item_id, start_date);
+create index if not exists bookings_item_id_status_end_date_idx on bookings (item_id, status, end_date);
+create index if not exists items_owner_id_idx on items (owner_id);
+create index if not exists bookings_booker_id_id_idx on bookings (booker_id, id);
+create index if not exists bookings_item_id_id_idx on bookings (item_id, id);
+create index if not exists item_booking_summary_valid_until_idx on item_booking_summary (valid_until);
+create index if not exists comments_item_id_idx on comments (item_id);
+create index if not exists requests_requestor_id_created_idx on requests (requestor_id, created);
+create index if not exists requests_created_id_idx on requests (created, id);
+create index if not exists request_matches_item_id_idx on request_matches (item_id);
@@ -12,10 +12,13 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoCreate;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
 import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingEventStream;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -30,7 +33,9 @@ import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -39,6 +44,8 @@ class BookingControllerTest {
     private MockMvc mvc;
     @MockBean
     private BookingService bookingService;
+    @MockBean
+    private BookingEventStream bookingEventStream;
     private ObjectMapper mapper = JsonMapper.builder()
             .addModule(new JavaTimeModule())
             .build();
@@ -167,4 +174,47 @@ class BookingControllerTest {
         verify(bookingService, times(1))
                 .findAllByOwner(anyLong(), any(BookingStatus.class), any(Pageable.class));
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void findByParam_whenAfterGiven_thenUseCursorAndReturnNextCursor() {
+        when(bookingService.findAllByParamAfter(anyLong(), any(BookingStatus.class), any(BookingCursor.class), anyInt()))
+                .thenReturn(Collections.singletonList(bookingDto));
+
+        mvc.perform(get("/bookings")
+                        .header(SHARER_USER_ID, 1)
+                        .param("after", new BookingCursor(null, 5L).encode())
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string(BookingController.NEXT_CURSOR,
+                        new BookingCursor(null, bookingDto.getId()).encode()));
+        verify(bookingService, times(1))
+                .findAllByParamAfter(eq(1L), eq(BookingStatus.ALL), any(BookingCursor.class), eq(1));
+    }
+
+    @SneakyThrows
+    @Test
+    void findByOwner_whenCursorMalformed_thenBadRequest() {
+        mvc.perform(get("/bookings/owner")
+                        .header(SHARER_USER_ID, 1)
+                        .param("after", "not a cursor"))
+                .andExpect(status().isBadRequest());
+        verify(bookingService, never())
+                .findAllByOwnerAfter(anyLong(), any(BookingStatus.class), any(), anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    void subscribe_whenInvoked_thenStartEventStream() {
+        when(bookingEventStream.subscribe(1L))
+                .thenReturn(new SseEmitter());
+
+        mvc.perform(get("/bookings/events")
+                        .header(SHARER_USER_ID, 1L)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+        verify(bookingEventStream, times(1))
+                .subscribe(1L);
+    }
+}
@@ -0,0 +1,166 @@
+package ru.practicum.shareit.booking.controller;
+
+import lombok.SneakyThrows;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Transactional
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BookingStatementCountTest {
+    public static final String SHARER_USER_ID = "X-Sharer-User-Id";
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private RequestRepository requestRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    private User owner;
+    private User booker;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder()
+                .name("Vasya")
+                .email("vasya@mail.ru")
+                .build());
+        booker = userRepository.save(User.builder()
+                .name("Petya")
+                .email("petya@mail.ru")
+                .build());
+        ItemRequest request = requestRepository.save(ItemRequest.builder()
+                .description("Нужна лопата")
+                .requestor(booker)
+                .created(LocalDateTime.now().minusDays(10))
+                .build());
+
+        for (int i = 0; i < 5; i++) {
+            User anotherOwner = userRepository.save(User.builder()
+                    .name("Owner " + i)
+                    .email("owner" + i + "@mail.ru")
+                    .build());
+            Item item = itemRepository.save(Item.builder()
+                    .name("Лопата " + i)
+                    .description("Лопата штыковая")
+                    .available(true)
+                    .owner(i % 2 == 0 ? owner : anotherOwner)
+                    .request(request)
+                    .build());
+            booking = bookingRepository.save(Booking.builder()
+                    .start(LocalDateTime.now().plusDays(i + 1))
+                    .end(LocalDateTime.now().plusDays(i + 2))
+                    .item(item)
+                    .booker(booker)
+                    .status(BookingStatus.WAITING)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findByParam_whenPageOfBookingsRendered_thenTwoStatements() {
+        assertStatementCount(get("/bookings")
+                .header(SHARER_USER_ID, booker.getId())
+                .param("from", "0")
+                .param("size", "10"), 5, 2);
+    }
+
+    @Test
+    void findByParam_whenCursorPageRendered_thenTwoStatements() {
+        assertStatementCount(get("/bookings")
+                .header(SHARER_USER_ID, booker.getId())
+                .param("state", "FUTURE")
+                .param("after", "")
+                .param("size", "10"), 5, 2);
+    }
+
+    @Test
+    void findByOwner_whenPageOfBookingsRendered_thenTwoStatements() {
+        assertStatementCount(get("/bookings/owner")
+                .header(SHARER_USER_ID, owner.getId())
+                .param("from", "0")
+                .param("size", "10"), 3, 2);
+    }
+
+    @SneakyThrows
+    @Test
+    void findByParam_whenUserAlreadyVerified_thenOneStatement() {
+        mvc.perform(get("/bookings")
+                        .header(SHARER_USER_ID, booker.getId())
+                        .param("from", "0")
+                        .param("size", "10"))
+                .andExpect(status().isOk());
+
+        assertStatementCount(get("/bookings")
+                .header(SHARER_USER_ID, booker.getId())
+                .param("from", "0")
+                .param("size", "10"), 5, 1);
+    }
+
+    @SneakyThrows
+    @Test
+    void findById_whenBookingRendered_thenOneStatement() {
+        Statistics statistics = statistics();
+
+        mvc.perform(get("/bookings/" + booking.getId())
+                        .header(SHARER_USER_ID, booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.item.request.requestor.name", equalTo(booker.getName())));
+
+        assertThat(statistics.getPrepareStatementCount(), equalTo(1L));
+    }
+
+    @SneakyThrows
+    private void assertStatementCount(RequestBuilder request, int expectedSize, long expectedStatements) {
+        Statistics statistics = statistics();
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(expectedSize)));
+
+        assertThat(statistics.getPrepareStatementCount(), equalTo(expectedStatements));
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
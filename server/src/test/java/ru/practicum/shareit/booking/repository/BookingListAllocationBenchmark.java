@@ -0,0 +1,117 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+
+/**
+ * Run with {@code mvn test -Dbenchmark=true -Dtest=BookingListAllocationBenchmark}.
+ */
+@Slf4j
+@DataJpaTest
+@DirtiesContext
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BookingListAllocationBenchmark {
+    private static final int BOOKINGS = 200;
+    private static final int PAGE_SIZE = 50;
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 1000;
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void compareEntityGraphWithProjection() {
+        User owner = userRepository.save(User.builder().name("Vasya").email("vasya@mail.ru").build());
+        User booker = userRepository.save(User.builder().name("Petya").email("petya@mail.ru").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Лопата")
+                .description("Лопата штыковая")
+                .available(true)
+                .owner(owner)
+                .build());
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookingRepository.save(Booking.builder()
+                    .start(LocalDateTime.now().plusDays(i))
+                    .end(LocalDateTime.now().plusDays(i + 1))
+                    .item(item)
+                    .booker(booker)
+                    .status(BookingStatus.WAITING)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Pageable pageable = PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "id"));
+        Supplier<List<BookingDto>> entities = () -> entityManager
+                .createQuery("select b from Booking b where b.booker.id = :bookerId order by b.id desc", Booking.class)
+                .setParameter("bookerId", booker.getId())
+                .setHint("javax.persistence.fetchgraph", entityManager.getEntityGraph(Booking.WITH_ITEM_AND_BOOKER))
+                .setMaxResults(PAGE_SIZE)
+                .getResultStream()
+                .map(BookingMapper.INSTANCE::toDtoResponse)
+                .collect(Collectors.toList());
+        Supplier<List<BookingDto>> projection = () -> bookingRepository
+                .findAllByState(BookingRole.BOOKER, booker.getId(), BookingStatus.ALL, LocalDateTime.now(), pageable)
+                .stream()
+                .map(BookingMapper.INSTANCE::toDtoResponse)
+                .collect(Collectors.toList());
+
+        assertThat(entities.get(), hasSize(PAGE_SIZE));
+        assertThat(projection.get(), hasSize(PAGE_SIZE));
+
+        log.info("Entity graph: {} bytes per page", bytesPerCall(entities));
+        log.info("Projection:   {} bytes per page", bytesPerCall(projection));
+    }
+
+    private long bytesPerCall(Supplier<List<BookingDto>> call) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < WARMUP; i++) {
+            call.get();
+            entityManager.clear();
+        }
+
+        long allocated = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            call.get();
+            allocated += threads.getThreadAllocatedBytes(threadId) - before;
+            entityManager.clear();
+        }
+        return allocated / ITERATIONS;
+    }
+}
@@ -0,0 +1,163 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingRow;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+@DataJpaTest
+@DirtiesContext
+class BookingRepositoryTest {
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    private final Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id"));
+    private User owner;
+    private User booker;
+    private Booking past;
+    private Booking current;
+    private Booking future;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder()
+                .name("Vasya")
+                .email("vasya@mail.ru")
+                .build());
+        booker = userRepository.save(User.builder()
+                .name("Petya")
+                .email("petya@mail.ru")
+                .build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Лопата")
+                .description("Лопата штыковая")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        past = saveBooking(item, now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED);
+        current = saveBooking(item, now.minusDays(1), now.plusDays(1), BookingStatus.APPROVED);
+        future = saveBooking(item, now.plusDays(2), now.plusDays(3), BookingStatus.WAITING);
+    }
+
+    @Test
+    void findAllByState_whenBookerRole_thenFilterByState() {
+        assertThat(bookingRepository.findAllByState(BookingRole.BOOKER, booker.getId(), BookingStatus.ALL,
+                now, pageable), hasSize(3));
+
+        List<BookingRow> currentList = bookingRepository.findAllByState(BookingRole.BOOKER, booker.getId(),
+                BookingStatus.CURRENT, now, pageable);
+        assertThat(currentList, hasSize(1));
+        assertThat(currentList.get(0).getId(), equalTo(current.getId()));
+
+        List<BookingRow> pastList = bookingRepository.findAllByState(BookingRole.BOOKER, booker.getId(),
+                BookingStatus.PAST, now, pageable);
+        assertThat(pastList, hasSize(1));
+        assertThat(pastList.get(0).getId(), equalTo(past.getId()));
+
+        List<BookingRow> waitingList = bookingRepository.findAllByState(BookingRole.BOOKER, booker.getId(),
+                BookingStatus.WAITING, now, pageable);
+        assertThat(waitingList, hasSize(1));
+        assertThat(waitingList.get(0).getId(), equalTo(future.getId()));
+    }
+
+    @Test
+    void findAllByState_whenOwnerRole_thenFilterByItemOwner() {
+        List<BookingRow> futureList = bookingRepository.findAllByState(BookingRole.OWNER, owner.getId(),
+                BookingStatus.FUTURE, now, pageable);
+        assertThat(futureList, hasSize(1));
+        assertThat(futureList.get(0).getId(), equalTo(future.getId()));
+        assertThat(futureList.get(0).getOwnerName(), equalTo(owner.getName()));
+        assertThat(futureList.get(0).getBookerEmail(), equalTo(booker.getEmail()));
+        assertThat(futureList.get(0).getRequestId(), nullValue());
+
+        assertThat(bookingRepository.findAllByState(BookingRole.OWNER, booker.getId(), BookingStatus.ALL,
+                now, pageable).isEmpty(), is(true));
+    }
+
+    @Test
+    void findAllByState_whenPaged_thenReturnRequestedPageOrderedByIdDesc() {
+        List<BookingRow> page = bookingRepository.findAllByState(BookingRole.BOOKER, booker.getId(),
+                BookingStatus.ALL, now, PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "id")));
+
+        assertThat(page, hasSize(1));
+        assertThat(page.get(0).getId(), equalTo(past.getId()));
+    }
+
+    @Test
+    void findAllByStateAfter_whenCursorGiven_thenSeekPastIt() {
+        List<BookingRow> firstPage = bookingRepository.findAllByStateAfter(BookingRole.BOOKER, booker.getId(),
+                BookingStatus.ALL, now, null, 2);
+        BookingCursor cursor = new BookingCursor(null, firstPage.get(1).getId());
+        List<BookingRow> secondPage = bookingRepository.findAllByStateAfter(BookingRole.BOOKER, booker.getId(),
+                BookingStatus.ALL, now, cursor, 2);
+
+        assertThat(firstPage, hasSize(2));
+        assertThat(firstPage.get(0).getId(), equalTo(future.getId()));
+        assertThat(secondPage, hasSize(1));
+        assertThat(secondPage.get(0).getId(), equalTo(past.getId()));
+    }
+
+    @Test
+    void findAllByStateAfter_whenFutureState_thenSeekByStartAndId() {
+        Booking later = saveBooking(future.getItem(), now.plusDays(5), now.plusDays(6), BookingStatus.WAITING);
+        BookingCursor cursor = new BookingCursor(later.getStart(), later.getId());
+
+        List<BookingRow> page = bookingRepository.findAllByStateAfter(BookingRole.OWNER, owner.getId(),
+                BookingStatus.FUTURE, now, cursor, 10);
+
+        assertThat(page, hasSize(1));
+        assertThat(page.get(0).getId(), equalTo(future.getId()));
+    }
+
+    @Test
+    void findAllByStateAfter_whenCursorFinerThanColumn_thenComparedAtStoredPrecision() {
+        Booking later = saveBooking(future.getItem(), now.plusDays(5).plusNanos(400), now.plusDays(6),
+                BookingStatus.WAITING);
+        BookingCursor cursor = new BookingCursor(later.getStart(), later.getId());
+
+        List<BookingRow> page = bookingRepository.findAllByStateAfter(BookingRole.OWNER, owner.getId(),
+                BookingStatus.FUTURE, now, cursor, 10);
+
+        assertThat(page, hasSize(1));
+        assertThat(page.get(0).getId(), equalTo(future.getId()));
+    }
+
+    private Booking saveBooking(Item item, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build());
+    }
+}
@@ -0,0 +1,148 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingStatusEvent;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class BookingEventStreamTest {
+    @Mock
+    private ExecutorService dispatcher;
+    private final List<Runnable> tasks = new ArrayList<>();
+    private BookingEventStream stream;
+
+    @BeforeEach
+    void setUp() {
+        lenient().doAnswer(invocation -> tasks.add(invocation.getArgument(0)))
+                .when(dispatcher).execute(any(Runnable.class));
+        stream = new BookingEventStream(60_000L, 2, dispatcher);
+    }
+
+    @Test
+    void onStatusChanged_whenBufferFull_thenOldestEventDropped() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        stream.subscribe(1L, emitter);
+
+        stream.onStatusChanged(event(10L, 1L, 1L));
+        stream.onStatusChanged(event(11L, 1L, 1L));
+        stream.onStatusChanged(event(12L, 1L, 1L));
+        runTasks();
+
+        assertThat(emitter.bookingIds(), contains(11L, 12L));
+    }
+
+    @Test
+    void onStatusChanged_whenDrainInProgress_thenSingleDrainScheduled() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        stream.subscribe(1L, emitter);
+
+        stream.onStatusChanged(event(10L, 1L, 1L));
+        stream.onStatusChanged(event(11L, 1L, 1L));
+        assertThat(tasks, hasSize(1));
+        runTasks();
+
+        stream.onStatusChanged(event(12L, 1L, 1L));
+        assertThat(tasks, hasSize(1));
+        runTasks();
+
+        assertThat(emitter.bookingIds(), contains(10L, 11L, 12L));
+    }
+
+    @Test
+    void onStatusChanged_whenBookerAndOwnerDiffer_thenBothNotified() {
+        RecordingEmitter booker = new RecordingEmitter();
+        RecordingEmitter owner = new RecordingEmitter();
+        RecordingEmitter stranger = new RecordingEmitter();
+        stream.subscribe(1L, booker);
+        stream.subscribe(2L, owner);
+        stream.subscribe(3L, stranger);
+
+        stream.onStatusChanged(event(10L, 1L, 2L));
+        runTasks();
+
+        assertThat(booker.bookingIds(), contains(10L));
+        assertThat(owner.bookingIds(), contains(10L));
+        assertThat(stranger.sent, empty());
+    }
+
+    @Test
+    void drain_whenSendFails_thenSubscriberRemoved() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.failing = true;
+        stream.subscribe(1L, emitter);
+
+        stream.onStatusChanged(event(10L, 1L, 1L));
+        runTasks();
+        stream.onStatusChanged(event(11L, 1L, 1L));
+
+        assertThat(tasks, empty());
+    }
+
+    @Test
+    void heartbeat_whenInvoked_thenCommentSentAndBrokenSubscriberRemoved() {
+        RecordingEmitter alive = new RecordingEmitter();
+        RecordingEmitter broken = new RecordingEmitter();
+        broken.failing = true;
+        stream.subscribe(1L, alive);
+        stream.subscribe(2L, broken);
+
+        stream.heartbeat();
+
+        assertThat(alive.sent, hasItem(containsString("heartbeat")));
+        stream.onStatusChanged(event(10L, 2L, 2L));
+        assertThat(tasks, empty());
+    }
+
+    private void runTasks() {
+        List<Runnable> pending = new ArrayList<>(tasks);
+        tasks.clear();
+        pending.forEach(Runnable::run);
+    }
+
+    private static BookingStatusEvent event(long bookingId, long bookerId, long ownerId) {
+        LocalDateTime now = LocalDateTime.now();
+        return new BookingStatusEvent(bookingId, 1L, bookerId, ownerId, BookingStatus.APPROVED,
+                now.plusDays(1), now.plusDays(2), now);
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<Object> sent = new ArrayList<>();
+        private boolean failing;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing)
+                throw new IOException("Соединение закрыто");
+            builder.build().forEach(data -> sent.add(data.getData()));
+        }
+
+        List<Long> bookingIds() {
+            return sent.stream()
+                    .filter(BookingStatusEvent.class::isInstance)
+                    .map(data -> ((BookingStatusEvent) data).getBookingId())
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BookingIntervalIndexTest {
+
+    private static final long ITEM_ID = 1L;
+
+    private final LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+    private BookingIntervalIndex index;
+    private long nextId;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookingIntervalIndex();
+        nextId = 100;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+            TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void reserve_whenNestedIntervalsLoaded_thenOverlapWithOuterDetected() {
+        index.add(booking(1L, hours(1), hours(10)));
+        index.add(booking(2L, hours(2), hours(3)));
+
+        assertThrows(ValidationException.class, () -> reserve(hours(5), hours(6)));
+    }
+
+    @Test
+    void reserve_whenIntervalsFree_thenBookingSaved() {
+        index.add(booking(1L, hours(1), hours(10)));
+        index.add(booking(2L, hours(2), hours(3)));
+
+        Booking booking = reserve(hours(10), hours(12));
+
+        assertThat(booking.getStart(), equalTo(hours(10)));
+        assertThrows(ValidationException.class, () -> reserve(hours(11), hours(13)));
+    }
+
+    @Test
+    void remove_whenTwoBookingsShareStart_thenOtherStillTracked() {
+        index.add(booking(1L, hours(1), hours(5)));
+        index.add(booking(2L, hours(1), hours(3)));
+
+        index.remove(ITEM_ID, 1L);
+
+        assertThrows(ValidationException.class, () -> reserve(hours(2), hours(4)));
+        reserve(hours(3), hours(4));
+    }
+
+    @Test
+    void remove_whenLongerBookingKept_thenShorterRemovalKeepsIt() {
+        index.add(booking(1L, hours(1), hours(3)));
+        index.add(booking(2L, hours(1), hours(5)));
+
+        index.remove(ITEM_ID, 1L);
+
+        assertThrows(ValidationException.class, () -> reserve(hours(4), hours(6)));
+    }
+
+    @Test
+    void add_whenBookingMoved_thenOldIntervalReleased() {
+        index.add(booking(1L, hours(1), hours(3)));
+        index.add(booking(1L, hours(5), hours(7)));
+
+        reserve(hours(1), hours(3));
+        assertThrows(ValidationException.class, () -> reserve(hours(6), hours(8)));
+    }
+
+    @Test
+    void remove_whenTransactionActive_thenReleasedOnlyOnCommit() {
+        index.add(booking(1L, hours(1), hours(3)));
+        TransactionSynchronizationManager.initSynchronization();
+
+        index.remove(ITEM_ID, 1L);
+        assertThrows(ValidationException.class, () -> reserve(hours(2), hours(4)));
+
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        reserve(hours(2), hours(4));
+    }
+
+    @Test
+    void add_whenTransactionRolledBack_thenIntervalReleased() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        index.add(booking(1L, hours(1), hours(3)));
+        assertThrows(ValidationException.class, () -> reserve(hours(2), hours(4)));
+
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_ROLLED_BACK);
+        TransactionSynchronizationManager.clearSynchronization();
+        reserve(hours(2), hours(4));
+    }
+
+    @Test
+    void remove_whenLongestBookingRemoved_thenLongestRecomputed() {
+        index.add(booking(1L, hours(1), hours(10)));
+        index.add(booking(2L, hours(2), hours(4)));
+        index.add(booking(3L, hours(5), hours(7)));
+
+        index.remove(ITEM_ID, 1L);
+        assertThat(index.longest(ITEM_ID), equalTo(Duration.ofHours(2)));
+
+        index.remove(ITEM_ID, 2L);
+        assertThat(index.longest(ITEM_ID), equalTo(Duration.ofHours(2)));
+
+        index.remove(ITEM_ID, 3L);
+        assertThat(index.longest(ITEM_ID), equalTo(Duration.ZERO));
+    }
+
+    private Booking reserve(LocalDateTime start, LocalDateTime end) {
+        return index.reserve(ITEM_ID, start, end, () -> booking(nextId++, start, end));
+    }
+
+    private LocalDateTime hours(long hours) {
+        return base.plusHours(hours);
+    }
+
+    private static Booking booking(long id, LocalDateTime start, LocalDateTime end) {
+        return Booking.builder()
+                .id(id)
+                .start(start)
+                .end(end)
+                .item(Item.builder().id(ITEM_ID).build())
+                .build();
+    }
+}
@@ -7,12 +7,17 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoCreate;
+import ru.practicum.shareit.booking.dto.BookingRow;
+import ru.practicum.shareit.booking.dto.BookingStatusEvent;
+import ru.practicum.shareit.booking.enums.BookingRole;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
@@ -24,11 +29,12 @@ import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.UserDto;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -40,6 +46,9 @@ import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -49,9 +58,17 @@ class BookingServiceImplTest {
     @Mock
     private BookingRepository bookingRepository;
     @Mock
-    private UserRepository userRepository;
+    private UserExistenceCache userExistenceCache;
     @Mock
     private ItemRepository itemRepository;
+    @Spy
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    private ItemBookingSummaryService itemBookingSummaryService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Captor
+    private ArgumentCaptor<BookingStatusEvent> eventArgumentCaptor;
     @InjectMocks
     private BookingServiceImpl bookingService;
     @Captor
@@ -65,6 +82,7 @@ class BookingServiceImplTest {
     private Comment comment;
     private Booking booking;
     private BookingDto bookingDto;
+    private BookingRow bookingRow;
 
     @BeforeEach
     void setUp() {
@@ -105,6 +123,11 @@ class BookingServiceImplTest {
                 .booker(user)
                 .status(BookingStatus.WAITING)
                 .build();
+        bookingRow = new BookingRow(1L, booking.getStart(), booking.getEnd(), BookingStatus.WAITING,
+                item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                2L, "ownerName", "owner@mail.com",
+                null, null, null, null, null, null,
+                user.getId(), user.getName(), user.getEmail());
         bookingDto = BookingDto.builder()
                 .id(2L)
                 .start(LocalDateTime.now().plusDays(1))
@@ -126,8 +149,8 @@ class BookingServiceImplTest {
                 .end(LocalDateTime.now().plusDays(2))
                 .itemId(1L)
                 .build();
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
+        when(userExistenceCache.reference(eq(userId), anyString()))
+                .thenReturn(user);
         when(itemRepository.findById(userId))
                 .thenReturn(Optional.of(item));
 
@@ -144,6 +167,55 @@ class BookingServiceImplTest {
         assertThat(savedBooking.getStatus(), is(BookingStatus.WAITING));
     }
 
+    @Test
+    void save_whenPeriodOverlapsExistingBooking_thenValidationExceptionThrown() {
+        long userId = 1L;
+        user.setId(2L);
+        item.setAvailable(true);
+        item.setOwner(user);
+        booking.setStatus(BookingStatus.APPROVED);
+        bookingIntervalIndex.add(booking);
+        BookingDtoCreate bookingDtoCreate = BookingDtoCreate.builder()
+                .start(booking.getStart().minusHours(12))
+                .end(booking.getStart().plusHours(12))
+                .itemId(1L)
+                .build();
+        when(userExistenceCache.reference(eq(userId), anyString()))
+                .thenReturn(user);
+        when(itemRepository.findById(userId))
+                .thenReturn(Optional.of(item));
+
+
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> bookingService.save(bookingDtoCreate, userId));
+        assertThat(exception.getMessage(), equalTo("Предмет уже забронирован на указанный период!"));
+    }
+
+    @Test
+    void save_whenPeriodAdjoinsExistingBooking_thenSaveBooking() {
+        long userId = 1L;
+        user.setId(2L);
+        item.setAvailable(true);
+        item.setOwner(user);
+        bookingIntervalIndex.add(booking);
+        BookingDtoCreate bookingDtoCreate = BookingDtoCreate.builder()
+                .start(booking.getEnd())
+                .end(booking.getEnd().plusDays(1))
+                .itemId(1L)
+                .build();
+        when(userExistenceCache.reference(eq(userId), anyString()))
+                .thenReturn(user);
+        when(itemRepository.findById(userId))
+                .thenReturn(Optional.of(item));
+
+
+        bookingService.save(bookingDtoCreate, userId);
+
+
+        verify(bookingRepository).save(bookingArgumentCaptor.capture());
+        assertThat(bookingArgumentCaptor.getValue().getStart(), equalTo(booking.getEnd()));
+    }
+
     @Test
     void save_whenUserNotFound_thenNotFoundExceptionThrown() {
         long userId = 1L;
@@ -155,8 +227,8 @@ class BookingServiceImplTest {
                 .end(LocalDateTime.now().plusDays(2))
                 .itemId(1L)
                 .build();
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.empty());
+        when(userExistenceCache.reference(eq(userId), anyString()))
+                .thenThrow(new NotFoundException("Пользователь не существует!"));
 
 
         NotFoundException exception = assertThrows(NotFoundException.class,
@@ -175,8 +247,8 @@ class BookingServiceImplTest {
                 .end(LocalDateTime.now().plusDays(2))
                 .itemId(1L)
                 .build();
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
+        when(userExistenceCache.reference(eq(userId), anyString()))
+                .thenReturn(user);
         when(itemRepository.findById(userId))
                 .thenReturn(Optional.empty());
 
@@ -196,8 +268,8 @@ class BookingServiceImplTest {
                 .end(LocalDateTime.now().plusDays(2))
                 .itemId(1L)
                 .build();
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
+        when(userExistenceCache.reference(eq(userId), anyString()))
+                .thenReturn(user);
         when(itemRepository.findById(userId))
                 .thenReturn(Optional.of(item));
 
@@ -218,8 +290,8 @@ class BookingServiceImplTest {
                 .end(LocalDateTime.now().plusDays(2))
                 .itemId(1L)
                 .build();
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
+        when(userExistenceCache.reference(eq(userId), anyString()))
+                .thenReturn(user);
         when(itemRepository.findById(userId))
                 .thenReturn(Optional.of(item));
 
@@ -240,8 +312,8 @@ class BookingServiceImplTest {
                 .end(LocalDateTime.now().plusDays(2))
                 .itemId(1L)
                 .build();
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
+        when(userExistenceCache.reference(eq(userId), anyString()))
+                .thenReturn(user);
         when(itemRepository.findById(userId))
                 .thenReturn(Optional.of(item));
 
@@ -270,6 +342,12 @@ class BookingServiceImplTest {
         assertThat(savedBooking.getBooker(), equalTo(user));
         assertThat(savedBooking.getItem(), equalTo(item));
         assertThat(savedBooking.getStatus(), is(BookingStatus.APPROVED));
+        verify(eventPublisher).publishEvent(eventArgumentCaptor.capture());
+        BookingStatusEvent event = eventArgumentCaptor.getValue();
+        assertThat(event.getBookingId(), equalTo(bookingId));
+        assertThat(event.getBookerId(), equalTo(user.getId()));
+        assertThat(event.getOwnerId(), equalTo(ownerId));
+        assertThat(event.getStatus(), is(BookingStatus.APPROVED));
     }
 
     @Test
@@ -383,10 +461,9 @@ class BookingServiceImplTest {
         String state = "ALL";
         int from = 0;
         int size = 4;
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
-        when(bookingRepository.findBookingByBookerIdOrderByIdDesc(anyLong(), any(Pageable.class)))
-                .thenReturn(Collections.singletonList(booking));
+        when(bookingRepository.findAllByState(eq(BookingRole.BOOKER), anyLong(),
+                any(BookingStatus.class), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(bookingRow));
         try {
             status = BookingStatus.valueOf(state.toUpperCase());
         } catch (IllegalArgumentException e) {
@@ -395,6 +472,10 @@ class BookingServiceImplTest {
         Pageable pageable = PageRequest.of(from, size, Sort.by(Sort.Direction.DESC, "id"));
         List<BookingDto> returnedList = bookingService.findAllByParam(userId, status, pageable);
         assertThat(returnedList, hasSize(1));
+        assertThat(returnedList.get(0).getItem().getName(), equalTo(item.getName()));
+        assertThat(returnedList.get(0).getItem().getOwner().getEmail(), equalTo("owner@mail.com"));
+        assertThat(returnedList.get(0).getItem().getRequest(), nullValue());
+        assertThat(returnedList.get(0).getBooker().getEmail(), equalTo(user.getEmail()));
     }
 
     @Test
@@ -404,8 +485,8 @@ class BookingServiceImplTest {
         String state = "ALL";
         int from = 0;
         int size = 4;
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.empty());
+        doThrow(new NotFoundException("Пользователь не существует!"))
+                .when(userExistenceCache).verify(eq(userId), anyString());
         try {
             status = BookingStatus.valueOf(state.toUpperCase());
         } catch (IllegalArgumentException e) {
@@ -426,11 +507,9 @@ class BookingServiceImplTest {
         String state = "current";
         int from = 0;
         int size = 4;
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
-        when(bookingRepository.findBookingByBookerIdAndStartIsBeforeAndEndIsAfter(anyLong(),
-                any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(Collections.singletonList(booking));
+        when(bookingRepository.findAllByState(eq(BookingRole.BOOKER), anyLong(),
+                any(BookingStatus.class), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(bookingRow));
         try {
             status = BookingStatus.valueOf(state.toUpperCase());
         } catch (IllegalArgumentException e) {
@@ -450,11 +529,9 @@ class BookingServiceImplTest {
         String state = "past";
         int from = 0;
         int size = 4;
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
-        when(bookingRepository.findBookingByBookerIdAndEndIsBeforeAndStatusIs(anyLong(),
-                any(LocalDateTime.class), any(BookingStatus.class), any(Pageable.class)))
-                .thenReturn(Collections.singletonList(booking));
+        when(bookingRepository.findAllByState(eq(BookingRole.BOOKER), anyLong(),
+                any(BookingStatus.class), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(bookingRow));
         try {
             status = BookingStatus.valueOf(state.toUpperCase());
         } catch (IllegalArgumentException e) {
@@ -474,11 +551,9 @@ class BookingServiceImplTest {
         String state = "future";
         int from = 0;
         int size = 4;
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
-        when(bookingRepository.findBookingByBookerIdAndStartIsAfterOrderByStartDesc(anyLong(),
-                any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(Collections.singletonList(booking));
+        when(bookingRepository.findAllByState(eq(BookingRole.BOOKER), anyLong(),
+                any(BookingStatus.class), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(bookingRow));
         try {
             status = BookingStatus.valueOf(state.toUpperCase());
         } catch (IllegalArgumentException e) {
@@ -498,11 +573,9 @@ class BookingServiceImplTest {
         String state = "waiting";
         int from = 0;
         int size = 4;
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
-        when(bookingRepository.findBookingByBookerIdAndStatus(anyLong(),
-                any(BookingStatus.class), any(Pageable.class)))
-                .thenReturn(Collections.singletonList(booking));
+        when(bookingRepository.findAllByState(eq(BookingRole.BOOKER), anyLong(),
+                any(BookingStatus.class), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(bookingRow));
         try {
             status = BookingStatus.valueOf(state.toUpperCase());
         } catch (IllegalArgumentException e) {
@@ -522,11 +595,9 @@ class BookingServiceImplTest {
         String state = "rejected";
         int from = 0;
         int size = 4;
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
-        when(bookingRepository.findBookingByBookerIdAndStatus(anyLong(),
-                any(BookingStatus.class), any(Pageable.class)))
-                .thenReturn(Collections.singletonList(booking));
+        when(bookingRepository.findAllByState(eq(BookingRole.BOOKER), anyLong(),
+                any(BookingStatus.class), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(bookingRow));
         try {
             status = BookingStatus.valueOf(state.toUpperCase());
         } catch (IllegalArgumentException e) {
@@ -546,10 +617,9 @@ class BookingServiceImplTest {
         String state = "ALL";
         int from = 0;
         int size = 4;
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
-        when(bookingRepository.findBookingByItemOwnerIdOrderByIdDesc(anyLong(), any(Pageable.class)))
-                .thenReturn(Collections.singletonList(booking));
+        when(bookingRepository.findAllByState(eq(BookingRole.OWNER), anyLong(),
+                any(BookingStatus.class), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(bookingRow));
         try {
             status = BookingStatus.valueOf(state.toUpperCase());
         } catch (IllegalArgumentException e) {
@@ -569,8 +639,8 @@ class BookingServiceImplTest {
         String state = "ALL";
         int from = 0;
         int size = 4;
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.empty());
+        doThrow(new NotFoundException("Пользователь не существует!"))
+                .when(userExistenceCache).verify(eq(userId), anyString());
         try {
             status = BookingStatus.valueOf(state.toUpperCase());
         } catch (IllegalArgumentException e) {
@@ -591,11 +661,9 @@ class BookingServiceImplTest {
         String state = "current";
         int from = 0;
         int size = 4;
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
-        when(bookingRepository.findBookingByItemOwnerIdAndStartIsBeforeAndEndIsAfter(anyLong(),
-                any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(Collections.singletonList(booking));
+        when(bookingRepository.findAllByState(eq(BookingRole.OWNER), anyLong(),
+                any(BookingStatus.class), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(bookingRow));
         try {
             status = BookingStatus.valueOf(state.toUpperCase());
         } catch (IllegalArgumentException e) {
@@ -615,11 +683,9 @@ class BookingServiceImplTest {
         String state = "past";
         int from = 0;
         int size = 4;
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
-        when(bookingRepository.findBookingByItemOwnerIdAndEndIsBeforeAndStatusIs(anyLong(),
-                any(LocalDateTime.class), any(BookingStatus.class), any(Pageable.class)))
-                .thenReturn(Collections.singletonList(booking));
+        when(bookingRepository.findAllByState(eq(BookingRole.OWNER), anyLong(),
+                any(BookingStatus.class), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(bookingRow));
         try {
             status = BookingStatus.valueOf(state.toUpperCase());
         } catch (IllegalArgumentException e) {
@@ -639,11 +705,9 @@ class BookingServiceImplTest {
         String state = "future";
         int from = 0;
         int size = 4;
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
-        when(bookingRepository.findBookingByItemOwnerIdAndStartIsAfterOrderByStartDesc(anyLong(),
-                any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(Collections.singletonList(booking));
+        when(bookingRepository.findAllByState(eq(BookingRole.OWNER), anyLong(),
+                any(BookingStatus.class), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(bookingRow));
         try {
             status = BookingStatus.valueOf(state.toUpperCase());
         } catch (IllegalArgumentException e) {
@@ -663,11 +727,9 @@ class BookingServiceImplTest {
         String state = "waiting";
         int from = 0;
         int size = 4;
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
-        when(bookingRepository.findBookingByItemOwnerIdAndStatus(anyLong(),
-                any(BookingStatus.class), any(Pageable.class)))
-                .thenReturn(Collections.singletonList(booking));
+        when(bookingRepository.findAllByState(eq(BookingRole.OWNER), anyLong(),
+                any(BookingStatus.class), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(bookingRow));
         try {
             status = BookingStatus.valueOf(state.toUpperCase());
         } catch (IllegalArgumentException e) {
@@ -687,11 +749,9 @@ class BookingServiceImplTest {
         String state = "rejected";
         int from = 0;
         int size = 4;
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
-        when(bookingRepository.findBookingByItemOwnerIdAndStatus(anyLong(),
-                any(BookingStatus.class), any(Pageable.class)))
-                .thenReturn(Collections.singletonList(booking));
+        when(bookingRepository.findAllByState(eq(BookingRole.OWNER), anyLong(),
+                any(BookingStatus.class), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(bookingRow));
         try {
             status = BookingStatus.valueOf(state.toUpperCase());
         } catch (IllegalArgumentException e) {
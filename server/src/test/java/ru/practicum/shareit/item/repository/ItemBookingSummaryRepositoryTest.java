@@ -0,0 +1,98 @@
+package ru.practicum.shareit.item.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+@DataJpaTest
+@DirtiesContext
+class ItemBookingSummaryRepositoryTest {
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(User.builder()
+                .name("Vasya")
+                .email("vasya@mail.ru")
+                .build());
+        item = itemRepository.save(Item.builder()
+                .name("Лопата")
+                .description("Лопата штыковая")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    @Test
+    void upsert_whenRowMissing_thenInsert() {
+        summaryRepository.upsert(ItemBookingSummary.builder()
+                .itemId(item.getId())
+                .nextBookingId(5L)
+                .validUntil(now)
+                .build());
+        entityManager.clear();
+
+        ItemBookingSummary stored = summaryRepository.findById(item.getId()).orElseThrow();
+        assertThat(stored.getNextBookingId(), equalTo(5L));
+        assertThat(stored.getLastBookingId(), nullValue());
+        assertThat(stored.getValidUntil(), equalTo(now));
+    }
+
+    @Test
+    void upsert_whenRowExists_thenOverwrite() {
+        summaryRepository.upsert(ItemBookingSummary.builder()
+                .itemId(item.getId())
+                .nextBookingId(5L)
+                .validUntil(now)
+                .build());
+        summaryRepository.upsert(ItemBookingSummary.builder()
+                .itemId(item.getId())
+                .lastBookingId(5L)
+                .build());
+        entityManager.clear();
+
+        ItemBookingSummary stored = summaryRepository.findById(item.getId()).orElseThrow();
+        assertThat(stored.getLastBookingId(), equalTo(5L));
+        assertThat(stored.getNextBookingId(), nullValue());
+        assertThat(stored.getValidUntil(), nullValue());
+        assertThat(summaryRepository.count(), equalTo(1L));
+    }
+
+    @Test
+    void findStaleItemIds_whenValidUntilPassed_thenReturnInPages() {
+        summaryRepository.upsert(ItemBookingSummary.builder()
+                .itemId(item.getId())
+                .validUntil(now.minusMinutes(1))
+                .build());
+
+        assertThat(summaryRepository.findStaleItemIds(now, PageRequest.of(0, 10)), contains(item.getId()));
+        assertThat(summaryRepository.findStaleItemIds(now.minusHours(1), PageRequest.of(0, 10)).isEmpty(),
+                equalTo(true));
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryItemSearchEngineTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @InjectMocks
+    private InMemoryItemSearchEngine searchEngine;
+
+    private Item drill;
+    private Item saw;
+    private Item screwdriver;
+
+    @BeforeEach
+    void setUp() {
+        drill = Item.builder().id(1L).name("Дрель").description("Простая дрель").available(true).build();
+        saw = Item.builder().id(2L).name("Пила").description("Ручная пила по дереву").available(true).build();
+        screwdriver = Item.builder().id(3L).name("Отвертка").description("Аккумуляторная отвертка").available(true).build();
+
+        Mockito.when(itemRepository.findAllByAvailableTrue()).thenReturn(List.of(drill, saw, screwdriver));
+        searchEngine.rebuild();
+    }
+
+    @Test
+    void searchByNameAndDescriptionIgnoringCase() {
+        assertEquals(List.of(1L), ids(searchEngine.search("ДРЕЛЬ", PageRequest.of(0, 10))));
+        assertEquals(List.of(2L), ids(searchEngine.search("дерев", PageRequest.of(0, 10))));
+        assertEquals(List.of(3L), ids(searchEngine.search("аккум", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void searchShortQueryScansAllDocuments() {
+        assertEquals(List.of(1L, 2L, 3L), ids(searchEngine.search("р", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void searchRespectsPage() {
+        assertEquals(List.of(2L), ids(searchEngine.search("р", PageRequest.of(1, 1))));
+    }
+
+    @Test
+    void searchRequiresAllTrigramsToMatch() {
+        assertTrue(searchEngine.search("дрелька", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void indexReplacesUpdatedItem() {
+        drill.setName("Перфоратор");
+        drill.setDescription("Мощный перфоратор");
+        searchEngine.index(drill);
+
+        assertTrue(searchEngine.search("дрель", PageRequest.of(0, 10)).isEmpty());
+        assertEquals(List.of(1L), ids(searchEngine.search("перфо", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void indexRemovesUnavailableItem() {
+        saw.setAvailable(false);
+        searchEngine.index(saw);
+
+        assertTrue(searchEngine.search("пила", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void indexAddsNewItem() {
+        searchEngine.index(Item.builder().id(4L).name("Дрель ударная").description("Для бетона").available(true).build());
+
+        assertEquals(List.of(1L, 4L), ids(searchEngine.search("дрель", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void indexAcceptsIdsBeyondIntRange() {
+        long id = Integer.MAX_VALUE + 10L;
+        searchEngine.index(Item.builder().id(id).name("Дрель ударная").description("Для бетона").available(true).build());
+
+        assertEquals(List.of(1L, id), ids(searchEngine.search("дрель", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void searchBlankQueryReturnsNothing() {
+        assertTrue(searchEngine.search("", PageRequest.of(0, 10)).isEmpty());
+        assertTrue(searchEngine.search("  ", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void rebuildKeepsUpdatesCommittedWhileSnapshotLoads() {
+        Item renamed = Item.builder().id(2L).name("Лобзик").description("Электрический лобзик").available(true).build();
+        Item added = Item.builder().id(5L).name("Рубанок").description("Ручной рубанок").available(true).build();
+        Mockito.when(itemRepository.findAllByAvailableTrue()).thenAnswer(invocation -> {
+            searchEngine.index(renamed);
+            searchEngine.index(added);
+            return List.of(drill, saw, screwdriver);
+        });
+
+        searchEngine.rebuild();
+
+        assertTrue(searchEngine.search("пила", PageRequest.of(0, 10)).isEmpty());
+        assertEquals(List.of(2L), ids(searchEngine.search("лобзик", PageRequest.of(0, 10))));
+        assertEquals(List.of(5L), ids(searchEngine.search("рубанок", PageRequest.of(0, 10))));
+    }
+
+    private List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemSearchCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ItemSearchCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ItemSearchCache(meterRegistry, 2, 60_000);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void getNormalizesTextAndCountsHits() {
+        cache.get("Дрель", PageRequest.of(0, 10), loader(1L));
+        cache.get("ДРЕЛЬ", PageRequest.of(0, 10), loader(1L));
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("shareit.search.cache").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("shareit.search.cache").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void getKeepsPaddedTextSeparate() {
+        cache.get("дрель", PageRequest.of(0, 10), loader(1L));
+        cache.get(" дрель", PageRequest.of(0, 10), loader(1L));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getSeparatesPages() {
+        cache.get("дрель", PageRequest.of(0, 10), loader(1L));
+        cache.get("дрель", PageRequest.of(1, 10), loader(1L));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getEvictsLeastRecentlyUsed() {
+        cache.get("дрель", PageRequest.of(0, 10), loader(1L));
+        cache.get("пила", PageRequest.of(0, 10), loader(2L));
+        cache.get("дрель", PageRequest.of(0, 10), loader(1L));
+        cache.get("отвертка", PageRequest.of(0, 10), loader(3L));
+        cache.get("дрель", PageRequest.of(0, 10), loader(1L));
+        cache.get("пила", PageRequest.of(0, 10), loader(2L));
+
+        assertEquals(4, loads.get());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void getExpiresEntries() {
+        cache = new ItemSearchCache(meterRegistry, 2, 0);
+        cache.get("дрель", PageRequest.of(0, 10), loader(1L));
+        cache.get("дрель", PageRequest.of(0, 10), loader(1L));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidateDropsTermWhoseWordsAppearInAnyOrder() {
+        cache.get("ударная дрель", PageRequest.of(0, 10), loader());
+        cache.get("дрель перфоратор", PageRequest.of(0, 10), loader());
+
+        cache.invalidate(Item.builder().id(5L).name("Дрель").description("Ударная, для бетона").build());
+
+        assertEquals(1, cache.size());
+        cache.get("дрель перфоратор", PageRequest.of(0, 10), loader());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidateDropsAllPagesOfMatchingTerm() {
+        cache.get("дрель", PageRequest.of(0, 10), loader(1L));
+        cache.get("дрель", PageRequest.of(1, 10), loader());
+
+        cache.invalidate(Item.builder().id(5L).name("Новая дрель").description("Ударная").build());
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void invalidateDropsTermsThatReturnedChangedItem() {
+        cache.get("дрель", PageRequest.of(0, 10), loader(1L));
+        cache.get("пила", PageRequest.of(0, 10), loader(2L));
+
+        cache.invalidate(Item.builder().id(1L).name("Перфоратор").description("Мощный").build());
+
+        assertEquals(1, cache.size());
+        cache.get("пила", PageRequest.of(0, 10), loader(2L));
+        assertEquals(2, loads.get());
+    }
+
+    private Supplier<List<ItemDto>> loader(Long... ids) {
+        return () -> {
+            loads.incrementAndGet();
+            return Arrays.stream(ids)
+                    .map(id -> ItemDto.builder().id(id).build())
+                    .collect(Collectors.toList());
+        };
+    }
+}
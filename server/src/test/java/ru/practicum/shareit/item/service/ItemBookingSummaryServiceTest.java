@@ -0,0 +1,167 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemBookingSummaryServiceTest {
+    @Mock
+    private ItemBookingSummaryRepository summaryRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @InjectMocks
+    private ItemBookingSummaryService summaryService;
+    @Captor
+    private ArgumentCaptor<ItemBookingSummary> summaryArgumentCaptor;
+    private User booker;
+    private Booking lastBooking;
+    private Booking nextBooking;
+    private Booking currentBooking;
+
+    @BeforeEach
+    void setUp() {
+        booker = User.builder()
+                .id(7L)
+                .name("Petya")
+                .email("petya@mail.ru")
+                .build();
+        lastBooking = Booking.builder()
+                .id(1L)
+                .start(LocalDateTime.now().minusDays(3))
+                .end(LocalDateTime.now().minusDays(2))
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build();
+        currentBooking = Booking.builder()
+                .id(2L)
+                .start(LocalDateTime.now().minusHours(1))
+                .end(LocalDateTime.now().plusHours(5))
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build();
+        nextBooking = Booking.builder()
+                .id(3L)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .build();
+    }
+
+    @Test
+    void refresh_whenInvoked_thenSaveLastNextAndEarliestChange() {
+        long itemId = 1L;
+        when(bookingRepository.findFirstByItem_IdAndStatusAndEndIsBeforeOrderByEndDesc(eq(itemId),
+                eq(BookingStatus.APPROVED), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(lastBooking));
+        when(bookingRepository.findFirstByItem_IdAndStartIsAfterOrderByEndAsc(eq(itemId), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(nextBooking));
+        when(bookingRepository.findFirstByItem_IdAndStartIsAfterOrderByStartAsc(eq(itemId), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(nextBooking));
+        when(bookingRepository.findFirstByItem_IdAndStatusAndEndIsAfterOrderByEndAsc(eq(itemId),
+                eq(BookingStatus.APPROVED), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(currentBooking));
+
+
+        summaryService.refresh(itemId);
+
+
+        verify(summaryRepository).upsert(summaryArgumentCaptor.capture());
+        ItemBookingSummary summary = summaryArgumentCaptor.getValue();
+        assertThat(summary.getItemId(), is(itemId));
+        assertThat(summary.getLastBookingId(), is(lastBooking.getId()));
+        assertThat(summary.getLastBookerId(), is(booker.getId()));
+        assertThat(summary.getNextBookingId(), is(nextBooking.getId()));
+        assertThat(summary.getNextBookerId(), is(booker.getId()));
+        assertThat(summary.getValidUntil(), equalTo(currentBooking.getEnd()));
+    }
+
+    @Test
+    void refresh_whenNoBookings_thenSaveEmptySummaryThatNeverExpires() {
+        long itemId = 1L;
+
+
+        summaryService.refresh(itemId);
+
+
+        verify(summaryRepository).upsert(summaryArgumentCaptor.capture());
+        ItemBookingSummary summary = summaryArgumentCaptor.getValue();
+        assertThat(summary.getLastBookingId(), nullValue());
+        assertThat(summary.getNextBookingId(), nullValue());
+        assertThat(summary.getValidUntil(), nullValue());
+    }
+
+    @Test
+    void findAllByItemIds_whenSummaryMissing_thenRefreshOnlyMissing() {
+        ItemBookingSummary stored = ItemBookingSummary.builder()
+                .itemId(1L)
+                .lastBookingId(1L)
+                .build();
+        when(summaryRepository.findAllByItemIdIn(List.of(1L, 2L)))
+                .thenReturn(Collections.singletonList(stored));
+
+
+        Map<Long, ItemBookingSummary> summaries = summaryService.findAllByItemIds(List.of(1L, 2L));
+
+
+        assertThat(summaries.get(1L), sameInstance(stored));
+        assertThat(summaries.get(2L).getItemId(), is(2L));
+        verify(bookingRepository, never()).findFirstByItem_IdAndStartIsAfterOrderByEndAsc(eq(1L), any());
+    }
+
+    @Test
+    void refreshStale_whenStaleSummariesFound_thenRefreshEach() {
+        when(summaryRepository.findStaleItemIds(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(3L, 4L));
+
+
+        summaryService.refreshStale();
+
+
+        verify(summaryRepository, times(2)).upsert(any(ItemBookingSummary.class));
+        verify(bookingRepository, times(2)).findFirstByItem_IdAndStartIsAfterOrderByEndAsc(anyLong(), any());
+    }
+
+    @Test
+    void refreshStale_whenBatchFull_thenLoadNextBatch() {
+        List<Long> fullBatch = LongStream.rangeClosed(1, 500).boxed().collect(Collectors.toList());
+        when(summaryRepository.findStaleItemIds(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(fullBatch, List.of(501L));
+
+
+        summaryService.refreshStale();
+
+
+        verify(summaryRepository, times(2)).findStaleItemIds(any(LocalDateTime.class), eq(PageRequest.of(0, 500)));
+        verify(summaryRepository, times(501)).upsert(any(ItemBookingSummary.class));
+    }
+}
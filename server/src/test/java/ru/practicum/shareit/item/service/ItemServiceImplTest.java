@@ -16,20 +16,26 @@ import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestFeed;
+import ru.practicum.shareit.request.service.RequestMatcher;
 import ru.practicum.shareit.user.UserDto;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -40,13 +46,23 @@ class ItemServiceImplTest {
     @Mock
     private ItemRepository itemRepository;
     @Mock
-    private UserRepository userRepository;
+    private UserExistenceCache userExistenceCache;
     @Mock
     private RequestRepository requestRepository;
     @Mock
     private BookingRepository bookingRepository;
     @Mock
     private CommentRepository commentRepository;
+    @Mock
+    private ItemBookingSummaryService itemBookingSummaryService;
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
+    private ItemSearchCache itemSearchCache;
+    @Mock
+    private ItemRequestFeed itemRequestFeed;
+    @Mock
+    private RequestMatcher requestMatcher;
     @Captor
     private ArgumentCaptor<Item> itemArgumentCaptor;
     @Captor
@@ -118,8 +134,8 @@ class ItemServiceImplTest {
         User testUser = User.builder()
                 .name("TestName")
                 .build();
-        Mockito.when(userRepository.findById(userId))
-                .thenReturn(Optional.of(testUser));
+        Mockito.when(userExistenceCache.reference(Mockito.eq(userId), Mockito.anyString()))
+                .thenReturn(testUser);
 
 
         itemService.save(userId, itemDto);
@@ -133,8 +149,8 @@ class ItemServiceImplTest {
     @Test
     void save_whenUserNotFound_thenNotFoundExceptionThrown() {
         long userId = 1L;
-        Mockito.when(userRepository.findById(userId))
-                .thenReturn(Optional.empty());
+        Mockito.when(userExistenceCache.reference(Mockito.eq(userId), Mockito.anyString()))
+                .thenThrow(new NotFoundException("Пользователь с таким id отсутствует!"));
 
 
         NotFoundException exception = assertThrows(NotFoundException.class,
@@ -149,8 +165,8 @@ class ItemServiceImplTest {
                 .name("TestName")
                 .build();
         itemDto.setRequestId(1L);
-        Mockito.when(userRepository.findById(userId))
-                .thenReturn(Optional.of(testUser));
+        Mockito.when(userExistenceCache.reference(Mockito.eq(userId), Mockito.anyString()))
+                .thenReturn(testUser);
         Mockito.when(requestRepository.findById(itemDto.getRequestId()))
                 .thenReturn(Optional.of(itemRequest));
 
@@ -161,6 +177,7 @@ class ItemServiceImplTest {
         Mockito.verify(itemRepository).save(itemArgumentCaptor.capture());
         Item actualItem = itemArgumentCaptor.getValue();
         assertThat(actualItem.getRequest(), equalTo(itemRequest));
+        Mockito.verify(itemRequestFeed).putItem(Mockito.eq(1L), Mockito.any());
     }
 
     @Test
@@ -170,8 +187,8 @@ class ItemServiceImplTest {
                 .name("TestName")
                 .build();
         itemDto.setRequestId(1L);
-        Mockito.when(userRepository.findById(userId))
-                .thenReturn(Optional.of(testUser));
+        Mockito.when(userExistenceCache.reference(Mockito.eq(userId), Mockito.anyString()))
+                .thenReturn(testUser);
         Mockito.when(requestRepository.findById(itemDto.getRequestId()))
                 .thenReturn(Optional.empty());
 
@@ -190,8 +207,12 @@ class ItemServiceImplTest {
         Item item = ItemMapper.INSTANCE.fromDto(itemDto);
         Mockito.when(itemRepository.findById(userId))
                 .thenReturn(Optional.of(item));
-        Mockito.when(bookingRepository.findBookingByItem_Id(userId))
-                .thenReturn(Arrays.asList(booking1, booking2));
+        Mockito.when(itemBookingSummaryService.findByItemId(itemId))
+                .thenReturn(ItemBookingSummary.builder()
+                        .itemId(itemId)
+                        .nextBookingId(booking1.getId())
+                        .nextBookerId(user.getId())
+                        .build());
         Mockito.when(commentRepository.findAllByItem_Id(userId))
                 .thenReturn(Collections.singletonList(comment));
 
@@ -223,8 +244,12 @@ class ItemServiceImplTest {
         Pageable pageable = PageRequest.of(from, size, Sort.by(Sort.Direction.ASC, "id"));
         Mockito.when(itemRepository.findAllByOwnerId(Mockito.anyLong(), Mockito.any(Pageable.class)))
                 .thenReturn(Collections.singletonList(item));
-        Mockito.when(bookingRepository.findAllByItemOwnerId(ownerId))
-                .thenReturn(Collections.singletonList(booking1));
+        Mockito.when(itemBookingSummaryService.findAllByItemIds(List.of(item.getId())))
+                .thenReturn(Map.of(item.getId(), ItemBookingSummary.builder()
+                        .itemId(item.getId())
+                        .lastBookingId(booking2.getId())
+                        .lastBookerId(user.getId())
+                        .build()));
         Mockito.when(commentRepository.findAllByItem_IdIn(Mockito.any()))
                 .thenReturn(Collections.singletonList(comment));
 
@@ -232,6 +257,54 @@ class ItemServiceImplTest {
 
         assertThat(returnedList, hasSize(1));
         assertThat(returnedList.get(0).getId(), is(1L));
+        assertThat(returnedList.get(0).getLastBooking().getId(), is(booking2.getId()));
+        assertThat(returnedList.get(0).getNextBooking(), nullValue());
+    }
+
+    @Test
+    void getAll_whenSeveralItemsOnPage_thenCommentsGroupedByItem() {
+        long ownerId = 1L;
+        Pageable pageable = PageRequest.of(0, 5, Sort.by(Sort.Direction.ASC, "id"));
+        Item secondItem = Item.builder()
+                .id(2L)
+                .name("second item")
+                .description("second description")
+                .available(true)
+                .build();
+        Comment secondComment = Comment.builder()
+                .id(2L)
+                .text("second comment")
+                .item(secondItem)
+                .author(user)
+                .created(LocalDateTime.now())
+                .build();
+        Mockito.when(itemRepository.findAllByOwnerId(Mockito.anyLong(), Mockito.any(Pageable.class)))
+                .thenReturn(List.of(item, secondItem));
+        Mockito.when(itemBookingSummaryService.findAllByItemIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, ItemBookingSummary.builder().itemId(1L).build(),
+                        2L, ItemBookingSummary.builder().itemId(2L).build()));
+        Mockito.when(commentRepository.findAllByItem_IdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(secondComment, comment));
+
+        List<ItemDtoResponse> returnedList = itemService.getAll(ownerId, pageable);
+
+        assertThat(returnedList, hasSize(2));
+        assertThat(returnedList.get(0).getComments(), hasSize(1));
+        assertThat(returnedList.get(0).getComments().get(0).getId(), is(comment.getId()));
+        assertThat(returnedList.get(1).getComments(), hasSize(1));
+        assertThat(returnedList.get(1).getComments().get(0).getId(), is(secondComment.getId()));
+    }
+
+    @Test
+    void getAll_whenPageEmpty_thenNoBatchLoads() {
+        Pageable pageable = PageRequest.of(0, 5, Sort.by(Sort.Direction.ASC, "id"));
+        Mockito.when(itemRepository.findAllByOwnerId(Mockito.anyLong(), Mockito.any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+
+        List<ItemDtoResponse> returnedList = itemService.getAll(1L, pageable);
+
+        assertThat(returnedList, empty());
+        Mockito.verifyNoInteractions(itemBookingSummaryService, commentRepository);
     }
 
     @Test
@@ -257,6 +330,7 @@ class ItemServiceImplTest {
         Item updatedItem = itemArgumentCaptor.getValue();
         assertThat(updatedItem.getName(), equalTo("UpdatedName"));
         assertThat(updatedItem.getDescription(), equalTo("UpdatedDescription"));
+        Mockito.verify(itemSearchCache).invalidate(Mockito.any(), Mockito.eq("item name"), Mockito.eq("item description"));
     }
 
     @Test
@@ -307,7 +381,9 @@ class ItemServiceImplTest {
         int from = 0;
         int size = 5;
         Pageable pageable = PageRequest.of(from, size, Sort.by(Sort.Direction.ASC, "id"));
-        Mockito.when(itemRepository.searchByText(Mockito.anyString(), Mockito.any(Pageable.class)))
+        Mockito.when(itemSearchCache.get(Mockito.eq(text), Mockito.eq(pageable), Mockito.any()))
+                .thenAnswer(invocation -> invocation.<Supplier<List<ItemDto>>>getArgument(2).get());
+        Mockito.when(itemSearchEngine.search(Mockito.anyString(), Mockito.any(Pageable.class)))
                 .thenReturn(Collections.singletonList(item));
 
         List<ItemDto> searchResults = itemService.getSearchResults(text, pageable);
@@ -321,8 +397,8 @@ class ItemServiceImplTest {
         comment.setText("testText");
         commentDto = CommentMapper.INSTANCE.toDto(comment);
         booking2.setStatus(BookingStatus.APPROVED);
-        Mockito.when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
+        Mockito.when(userExistenceCache.reference(Mockito.eq(userId), Mockito.anyString()))
+                .thenReturn(user);
         Mockito.when(itemRepository.findById(itemId))
                 .thenReturn(Optional.of(item));
         Mockito.when(bookingRepository.findFirstByItem_IdAndBooker_Id(itemId, userId))
@@ -340,8 +416,8 @@ class ItemServiceImplTest {
         long userId = 1L;
         long itemId = 1L;
         commentDto.setText("testText");
-        Mockito.when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
+        Mockito.when(userExistenceCache.reference(Mockito.eq(userId), Mockito.anyString()))
+                .thenReturn(user);
         Mockito.when(itemRepository.findById(itemId))
                 .thenReturn(Optional.of(item));
         Mockito.when(bookingRepository.findFirstByItem_IdAndBooker_Id(itemId, userId))
@@ -358,8 +434,8 @@ class ItemServiceImplTest {
         long userId = 1L;
         long itemId = 1L;
         commentDto.setText("testText");
-        Mockito.when(userRepository.findById(userId))
-                .thenReturn(Optional.empty());
+        Mockito.when(userExistenceCache.reference(Mockito.eq(userId), Mockito.anyString()))
+                .thenThrow(new NotFoundException("Пользователь с таким id отсутствует!"));
 
 
         NotFoundException exception = assertThrows(NotFoundException.class,
@@ -372,8 +448,8 @@ class ItemServiceImplTest {
         long userId = 1L;
         long itemId = 1L;
         commentDto.setText("testText");
-        Mockito.when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
+        Mockito.when(userExistenceCache.reference(Mockito.eq(userId), Mockito.anyString()))
+                .thenReturn(user);
         Mockito.when(itemRepository.findById(itemId))
                 .thenReturn(Optional.empty());
 
@@ -388,8 +464,8 @@ class ItemServiceImplTest {
         long userId = 1L;
         long itemId = 1L;
         commentDto.setText("testText");
-        Mockito.when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
+        Mockito.when(userExistenceCache.reference(Mockito.eq(userId), Mockito.anyString()))
+                .thenReturn(user);
         Mockito.when(itemRepository.findById(itemId))
                 .thenReturn(Optional.of(item));
         Mockito.when(bookingRepository.findFirstByItem_IdAndBooker_Id(itemId, userId))
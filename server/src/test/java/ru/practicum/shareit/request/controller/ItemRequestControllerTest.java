@@ -7,12 +7,15 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.UserDto;
@@ -27,8 +30,10 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.booking.controller.BookingController.NEXT_CURSOR;
 import static ru.practicum.shareit.item.controller.ItemController.SHARER_USER_ID;
 
 @WebMvcTest(controllers = ItemRequestController.class)
@@ -98,15 +103,44 @@ class ItemRequestControllerTest {
     @Test
     void findAllById() {
         long userId = 1L;
-        when(itemRequestService.findAllByRequestorId(userId))
+        when(itemRequestService.findAllByRequestorId(anyLong(), any(Pageable.class)))
                 .thenReturn(Collections.singletonList(itemRequestDto));
 
         mvc.perform(get("/requests")
                         .header(SHARER_USER_ID, userId))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)));
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().doesNotExist(NEXT_CURSOR));
+        verify(itemRequestService, times(1))
+                .findAllByRequestorId(userId, PageRequest.of(0, 10));
+    }
+
+    @SneakyThrows
+    @Test
+    void findAllById_whenAfterGiven_thenUseCursorAndReturnNextCursor() {
+        long userId = 1L;
+        when(itemRequestService.findAllByRequestorIdAfter(anyLong(), any(ItemRequestCursor.class), anyInt()))
+                .thenReturn(Collections.singletonList(itemRequestDto));
+
+        mvc.perform(get("/requests")
+                        .header(SHARER_USER_ID, userId)
+                        .param("after", new ItemRequestCursor(LocalDateTime.now(), 5L).encode())
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string(NEXT_CURSOR, ItemRequestCursor.of(itemRequestDto).encode()));
         verify(itemRequestService, times(1))
-                .findAllByRequestorId(anyLong());
+                .findAllByRequestorIdAfter(eq(userId), any(ItemRequestCursor.class), eq(1));
+    }
+
+    @SneakyThrows
+    @Test
+    void findAllById_whenCursorMalformed_thenBadRequest() {
+        mvc.perform(get("/requests")
+                        .header(SHARER_USER_ID, 1L)
+                        .param("after", "not a cursor"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(itemRequestService);
     }
 
     @SneakyThrows
@@ -146,4 +180,22 @@ class ItemRequestControllerTest {
         verify(itemRequestService, times(1))
                 .findById(anyLong(), anyLong());
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void findMatches() {
+        when(itemRequestService.findMatches(1L, 1L))
+                .thenReturn(Collections.singletonList(RequestMatchDto.builder()
+                        .itemId(5L)
+                        .name("item name")
+                        .score(0.75)
+                        .build()));
+
+        mvc.perform(get("/requests/{requestId}/matches", 1L)
+                        .header(SHARER_USER_ID, 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].itemId", is(5)))
+                .andExpect(jsonPath("$[0].score", is(0.75)));
+    }
+}
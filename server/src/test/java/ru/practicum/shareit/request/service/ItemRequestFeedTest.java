@@ -0,0 +1,132 @@
+package ru.practicum.shareit.request.service;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemRequestFeedTest {
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @Test
+    void page_whenAllRequestsBuffered_thenServeEveryPage() {
+        ItemRequestFeed feed = new ItemRequestFeed(5);
+        feed.load(List.of(request(3, 2), request(2, 1), request(1, 2)));
+
+        assertThat(ids(feed.page(1L, 0, 2)), contains(3L, 1L));
+        assertThat(ids(feed.page(1L, 2, 2)), hasSize(0));
+    }
+
+    @Test
+    void page_whenBufferExhaustedAndIncomplete_thenFallBack() {
+        ItemRequestFeed feed = new ItemRequestFeed(2);
+        feed.load(List.of(request(3, 2), request(2, 2)));
+
+        assertThat(ids(feed.page(1L, 0, 2)), contains(3L, 2L));
+        assertTrue(feed.page(1L, 1, 2).isEmpty());
+    }
+
+    @Test
+    void add_whenFull_thenEvictOldest() {
+        ItemRequestFeed feed = new ItemRequestFeed(3);
+        feed.load(List.of(request(2, 2), request(1, 2)));
+
+        feed.add(request(3, 2));
+        feed.add(request(4, 2));
+
+        assertThat(ids(feed.page(1L, 0, 3)), contains(4L, 3L, 2L));
+        assertTrue(feed.page(1L, 0, 4).isEmpty());
+    }
+
+    @Test
+    void add_whenOutOfOrder_thenKeepNewestFirst() {
+        ItemRequestFeed feed = new ItemRequestFeed(3);
+        feed.load(List.of(request(4, 2), request(2, 2)));
+
+        feed.add(request(3, 2));
+
+        assertThat(ids(feed.page(1L, 0, 3)), contains(4L, 3L, 2L));
+    }
+
+    @Test
+    void pageAfter_whenCursorInsideBuffer_thenContinueFromIt() {
+        ItemRequestFeed feed = new ItemRequestFeed(4);
+        feed.load(List.of(request(4, 2), request(3, 2), request(2, 2), request(1, 2)));
+
+        ItemRequestCursor after = new ItemRequestCursor(created(3), 3L);
+
+        assertThat(ids(feed.pageAfter(1L, after, 2)), contains(2L, 1L));
+    }
+
+    @Test
+    void putItem_whenRequestBuffered_thenItemAttached() {
+        ItemRequestFeed feed = new ItemRequestFeed(2);
+        feed.load(List.of(request(1, 2)));
+
+        feed.putItem(1L, ItemDto.builder().id(10L).name("item").requestId(1L).build());
+        feed.putItem(1L, ItemDto.builder().id(10L).name("renamed").requestId(1L).build());
+
+        List<ItemDto> items = feed.page(1L, 0, 1).orElseThrow().get(0).getItems();
+        assertThat(items, hasSize(1));
+        assertThat(items.get(0).getName(), equalTo("renamed"));
+    }
+
+    @Test
+    void updateRequestor_whenRequestsBuffered_thenServedWithNewDetails() {
+        ItemRequestFeed feed = new ItemRequestFeed(3);
+        feed.load(List.of(request(3, 2), request(2, 3), request(1, 2)));
+
+        feed.updateRequestor(UserDto.builder().id(2L).name("renamed").email("renamed@mail.ru").build());
+
+        List<ItemRequestDto> page = feed.page(1L, 0, 3).orElseThrow();
+        assertThat(page.get(0).getRequestor().getName(), equalTo("renamed"));
+        assertThat(page.get(1).getRequestor().getName(), nullValue());
+        assertThat(page.get(2).getRequestor().getEmail(), equalTo("renamed@mail.ru"));
+    }
+
+    @Test
+    void removeRequestor_whenRequestsBuffered_thenDroppedAndOrderKept() {
+        ItemRequestFeed feed = new ItemRequestFeed(5);
+        feed.load(List.of(request(4, 2), request(3, 3), request(2, 2), request(1, 3)));
+
+        feed.removeRequestor(2L);
+        feed.add(request(5, 3));
+
+        assertThat(ids(feed.page(1L, 0, 4)), contains(5L, 3L, 1L));
+    }
+
+    private ItemRequestDto request(long id, long requestorId) {
+        return ItemRequestDto.builder()
+                .id(id)
+                .description("request " + id)
+                .requestor(UserDto.builder().id(requestorId).build())
+                .created(created(id))
+                .items(new ArrayList<>())
+                .build();
+    }
+
+    private LocalDateTime created(long id) {
+        return now.plusMinutes(id);
+    }
+
+    private static List<Long> ids(Optional<List<ItemRequestDto>> page) {
+        return page.orElseThrow().stream()
+                .map(ItemRequestDto::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -15,19 +15,24 @@ import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestItemRow;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.RequestMatchRepository;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.UserDto;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -46,9 +51,15 @@ class ItemRequestServiceImplTest {
     @Mock
     private RequestRepository requestRepository;
     @Mock
-    private UserRepository userRepository;
+    private UserExistenceCache userExistenceCache;
     @Mock
     private ItemRepository itemRepository;
+    @Mock
+    private ItemRequestFeed itemRequestFeed;
+    @Mock
+    private RequestMatcher requestMatcher;
+    @Mock
+    private RequestMatchRepository requestMatchRepository;
     @Captor
     ArgumentCaptor<ItemRequest> itemRequestArgumentCaptor;
     @InjectMocks
@@ -121,8 +132,8 @@ class ItemRequestServiceImplTest {
     @Test
     void save_whenInvoked_thenSaveItemRequest() {
         long userId = 1L;
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
+        when(userExistenceCache.reference(eq(userId), anyString()))
+                .thenReturn(user);
 
         itemRequestService.save(itemRequestDto, userId);
 
@@ -137,8 +148,8 @@ class ItemRequestServiceImplTest {
     @Test
     void save_whenItemNotFound_thenNotFoundExceptionThrown() {
         long userId = 1L;
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.empty());
+        when(userExistenceCache.reference(eq(userId), anyString()))
+                .thenThrow(new NotFoundException("Пользователь не существует!"));
 
 
         NotFoundException exception = assertThrows(NotFoundException.class,
@@ -162,43 +173,85 @@ class ItemRequestServiceImplTest {
                 .name("userName")
                 .email("name@mail.com")
                 .build();
-        Item item1 = Item.builder()
-                .id(2L)
-                .owner(user3)
-                .request(itemRequest1)
-                .build();
-        Item item2 = Item.builder()
-                .id(3L)
-                .owner(user3)
-                .request(itemRequest2)
-                .build();
+        RequestItemRow item1 = new RequestItemRow(20L, 2L, "item1", "description1", true);
+        RequestItemRow item2 = new RequestItemRow(10L, 3L, "item2", "description2", true);
+        RequestItemRow item3 = new RequestItemRow(20L, 4L, "item3", "description3", false);
         item.setOwner(user3);
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
-        when(requestRepository.findAllByRequestorId(userId))
+        when(requestRepository.findAllByRequestorIdOrderByCreatedDescIdDesc(userId, PageRequest.of(0, 10)))
                 .thenReturn(Arrays.asList(itemRequest1, itemRequest2));
-        when(itemRepository.findAllByRequestIdIn(anyList()))
-                .thenReturn(Arrays.asList(item1, item2));
+        when(itemRepository.findAllRowsByRequestIdIn(List.of(10L, 20L)))
+                .thenReturn(Arrays.asList(item1, item2, item3));
 
 
-        List<ItemRequestDto> allByRequestorId = itemRequestService.findAllByRequestorId(userId);
+        List<ItemRequestDto> allByRequestorId = itemRequestService.findAllByRequestorId(userId, PageRequest.of(0, 10));
         assertThat(allByRequestorId, hasSize(2));
         assertThat(allByRequestorId.get(0).getId(), equalTo(10L));
+        assertThat(allByRequestorId.get(0).getItems(), hasSize(1));
+        assertThat(allByRequestorId.get(0).getItems().get(0).getId(), equalTo(3L));
+        assertThat(allByRequestorId.get(0).getItems().get(0).getRequestId(), equalTo(10L));
         assertThat(allByRequestorId.get(1).getId(), equalTo(20L));
+        assertThat(allByRequestorId.get(1).getItems(), hasSize(2));
+        assertThat(allByRequestorId.get(1).getItems().get(0).getId(), equalTo(2L));
+        assertThat(allByRequestorId.get(1).getItems().get(1).getId(), equalTo(4L));
     }
 
     @Test
     void findAllByRequestorId_whenUserNotFound_thenNotFoundExceptionThrown() {
         long userId = 1L;
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.empty());
+        doThrow(new NotFoundException("Пользователь не существует!"))
+                .when(userExistenceCache).verify(eq(userId), anyString());
 
 
         NotFoundException exception = assertThrows(NotFoundException.class,
-                () -> itemRequestService.findAllByRequestorId(userId));
+                () -> itemRequestService.findAllByRequestorId(userId, PageRequest.of(0, 10)));
         assertThat(exception.getMessage(), equalTo("Пользователь не существует!"));
     }
 
+    @Test
+    void findAllByRequestorIdAfter_whenInvoked_thenSeekFromCursor() {
+        long userId = 1L;
+        LocalDateTime created = LocalDateTime.now();
+        ItemRequest older = ItemRequest.builder()
+                .id(5L)
+                .requestor(user)
+                .created(created.minusDays(1))
+                .build();
+        when(requestRepository.findAllByRequestorIdBefore(userId, created, 7L, PageRequest.of(0, 2)))
+                .thenReturn(Collections.singletonList(older));
+        when(itemRepository.findAllRowsByRequestIdIn(List.of(5L)))
+                .thenReturn(Collections.emptyList());
+
+        List<ItemRequestDto> result = itemRequestService.findAllByRequestorIdAfter(userId,
+                new ItemRequestCursor(created, 7L), 2);
+
+        assertThat(result, hasSize(1));
+        assertThat(result.get(0).getId(), equalTo(5L));
+        assertThat(result.get(0).getItems(), hasSize(0));
+    }
+
+    @Test
+    void findAllByRequestorIdAfter_whenCursorMissing_thenStartFromTop() {
+        long userId = 1L;
+        when(requestRepository.findAllByRequestorIdOrderByCreatedDescIdDesc(userId, PageRequest.of(0, 2)))
+                .thenReturn(Collections.singletonList(itemRequest));
+        when(itemRepository.findAllRowsByRequestIdIn(List.of(1L)))
+                .thenReturn(Collections.emptyList());
+
+        List<ItemRequestDto> result = itemRequestService.findAllByRequestorIdAfter(userId, null, 2);
+
+        assertThat(result, hasSize(1));
+        assertThat(result.get(0).getId(), equalTo(1L));
+        verify(requestRepository, never()).findAllByRequestorIdBefore(anyLong(), any(), anyLong(), any());
+    }
+
+    @Test
+    void findAllByRequestorIdAfter_whenSizeNotPositive_thenValidationExceptionThrown() {
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> itemRequestService.findAllByRequestorIdAfter(1L, new ItemRequestCursor(LocalDateTime.now(), 1L), 0));
+        assertThat(exception.getMessage(), equalTo("Неправильно указанны параметры для просмотра!"));
+        verifyNoInteractions(requestRepository);
+    }
+
     @Test
     void findAllByParams_whenInvoked_thenGetListOfRequestDto() {
         long userId = 1L;
@@ -217,38 +270,69 @@ class ItemRequestServiceImplTest {
                 .name("userName")
                 .email("name@mail.com")
                 .build();
-        Item item1 = Item.builder()
-                .id(2L)
-                .owner(user3)
-                .request(itemRequest1)
-                .build();
-        Item item2 = Item.builder()
-                .id(3L)
-                .owner(user3)
-                .request(itemRequest2)
-                .build();
         item.setOwner(user3);
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
-        when(requestRepository.findAllByRequestorIdNotIn(anyList(), any()))
+        when(itemRequestFeed.page(userId, 0, size))
+                .thenReturn(Optional.empty());
+        when(requestRepository.findAllByRequestorIdNotOrderByCreatedDescIdDesc(eq(userId), any()))
                 .thenReturn(Collections.emptyList());
-        when(itemRepository.findAllByRequestIdIn(anyList()))
-                .thenReturn(Arrays.asList(item1, item2));
         Pageable pageable = PageRequest.of(from, size, Sort.by(Sort.Direction.DESC, "id"));
 
 
         List<ItemRequestDto> allByParams = itemRequestService.findAllByParams(userId, pageable);
         assertThat(allByParams, hasSize(0));
+        verifyNoInteractions(itemRepository);
     }
 
     @Test
-    void findAllByParams_whenUserNotFound_thenNotFoundExceptionThrown() {
+    void findAllByParams_whenFeedHasPage_thenDatabaseNotQueried() {
         long userId = 1L;
-        when(userRepository.findById(userId))
+        when(itemRequestFeed.page(userId, 0, 1))
+                .thenReturn(Optional.of(Collections.singletonList(itemRequestDto)));
+
+        List<ItemRequestDto> allByParams = itemRequestService.findAllByParams(userId, PageRequest.of(0, 1));
+
+        assertThat(allByParams, hasSize(1));
+        verifyNoInteractions(requestRepository, itemRepository);
+    }
+
+    @Test
+    void findAllByParamsAfter_whenCursorMissing_thenStartFromTop() {
+        long userId = 1L;
+        when(itemRequestFeed.page(userId, 0, 2))
+                .thenReturn(Optional.of(Collections.singletonList(itemRequestDto)));
+
+        List<ItemRequestDto> result = itemRequestService.findAllByParamsAfter(userId, null, 2);
+
+        assertThat(result, hasSize(1));
+        verify(itemRequestFeed, never()).pageAfter(anyLong(), any(), anyInt());
+        verifyNoInteractions(requestRepository, itemRepository);
+    }
+
+    @Test
+    void findAllByParamsAfter_whenFeedCannotAnswer_thenSeekInDatabase() {
+        long userId = 1L;
+        ItemRequestCursor after = new ItemRequestCursor(LocalDateTime.now(), 7L);
+        when(itemRequestFeed.pageAfter(userId, after, 2))
                 .thenReturn(Optional.empty());
+        when(requestRepository.findAllByRequestorIdNotBefore(userId, after.getCreated(), 7L, PageRequest.of(0, 2)))
+                .thenReturn(Collections.singletonList(itemRequest));
+        when(itemRepository.findAllRowsByRequestIdIn(List.of(1L)))
+                .thenReturn(Collections.emptyList());
+
+        List<ItemRequestDto> result = itemRequestService.findAllByParamsAfter(userId, after, 2);
+
+        assertThat(result, hasSize(1));
+        assertThat(result.get(0).getId(), equalTo(1L));
+    }
+
+    @Test
+    void findAllByParams_whenUserNotFound_thenNotFoundExceptionThrown() {
+        long userId = 1L;
+        doThrow(new NotFoundException("Пользователь не существует!"))
+                .when(userExistenceCache).verify(eq(userId), anyString());
 
         NotFoundException exception = assertThrows(NotFoundException.class,
-                () -> itemRequestService.findAllByParams(userId, any(Pageable.class)));
+                () -> itemRequestService.findAllByParams(userId, PageRequest.of(0, 10)));
         assertThat(exception.getMessage(), equalTo("Пользователь не существует!"));
     }
 
@@ -258,10 +342,8 @@ class ItemRequestServiceImplTest {
         long requestId = 1L;
         when(requestRepository.findById(requestId))
                 .thenReturn(Optional.of(itemRequest));
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
-        when(itemRepository.findAllByRequestId(requestId))
-                .thenReturn(Collections.singletonList(item));
+        when(itemRepository.findAllRowsByRequestIdIn(List.of(requestId)))
+                .thenReturn(Collections.singletonList(new RequestItemRow(requestId, 1L, "item name", "item description", false)));
 
         ItemRequestDto result = itemRequestService.findById(userId, requestId);
         assertThat(result.getItems(), hasSize(1));
@@ -269,6 +351,33 @@ class ItemRequestServiceImplTest {
         assertThat(result.getItems().get(0).getId(), equalTo(1L));
     }
 
+    @Test
+    void findMatches_whenRequestor_thenReturnMatches() {
+        long userId = 1L;
+        itemRequest.setRequestor(user);
+        when(requestRepository.findById(1L))
+                .thenReturn(Optional.of(itemRequest));
+        when(requestMatchRepository.findAllDtoByRequestId(1L))
+                .thenReturn(Collections.singletonList(RequestMatchDto.builder().itemId(5L).score(1.0).build()));
+
+        List<RequestMatchDto> matches = itemRequestService.findMatches(userId, 1L);
+
+        assertThat(matches, hasSize(1));
+        assertThat(matches.get(0).getItemId(), equalTo(5L));
+    }
+
+    @Test
+    void findMatches_whenNotRequestor_thenNotFoundExceptionThrown() {
+        itemRequest.setRequestor(user);
+        when(requestRepository.findById(1L))
+                .thenReturn(Optional.of(itemRequest));
+
+        NotFoundException exception = assertThrows(NotFoundException.class,
+                () -> itemRequestService.findMatches(2L, 1L));
+        assertThat(exception.getMessage(), equalTo("Запрос не существует!"));
+        verifyNoInteractions(requestMatchRepository);
+    }
+
     @Test
     void findById_whenRequestNotFound_thenNotFoundExceptionThrown() {
         long userId = 1L;
@@ -287,8 +396,8 @@ class ItemRequestServiceImplTest {
         long requestId = 1L;
         when(requestRepository.findById(requestId))
                 .thenReturn(Optional.of(itemRequest));
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.empty());
+        doThrow(new NotFoundException("Пользователь не существует!"))
+                .when(userExistenceCache).verify(eq(userId), anyString());
 
         NotFoundException exception = assertThrows(NotFoundException.class,
                 () -> itemRequestService.findById(userId, requestId));
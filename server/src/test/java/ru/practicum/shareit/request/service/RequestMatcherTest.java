@@ -0,0 +1,158 @@
+package ru.practicum.shareit.request.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestMatch;
+import ru.practicum.shareit.request.repository.RequestMatchRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RequestMatcherTest {
+    @Mock
+    private RequestMatchRepository requestMatchRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private ExecutorService executor;
+    @Captor
+    private ArgumentCaptor<List<RequestMatch>> matchesCaptor;
+    private RequestMatcher requestMatcher;
+
+    @BeforeEach
+    void setUp() {
+        requestMatcher = new RequestMatcher(requestMatchRepository, new TransactionTemplate(transactionManager),
+                executor, 0.5);
+        requestMatcher.load(List.of(
+                request(1L, 10L, "Нужна дрель ударная"),
+                request(2L, 11L, "Ищу лестницу"),
+                request(3L, 12L, "Дрель")));
+    }
+
+    @Test
+    void score_whenItemSharesTerms_thenReturnMatchingRequests() {
+        Map<Long, Double> scores = requestMatcher.score(item(100L, 20L, null, "Дрель", "Ударная дрель Bosch"));
+
+        assertThat(scores.keySet(), containsInAnyOrder(1L, 3L));
+        assertThat(scores.get(1L), closeTo(2.0 / 3, 0.001));
+        assertThat(scores.get(3L), closeTo(1.0, 0.001));
+    }
+
+    @Test
+    void score_whenRequestorOwnsItem_thenSkipOwnRequest() {
+        Map<Long, Double> scores = requestMatcher.score(item(100L, 12L, null, "Дрель", "Простая"));
+
+        assertThat(scores.keySet(), not(hasItem(3L)));
+    }
+
+    @Test
+    void score_whenBelowThreshold_thenNoMatch() {
+        Map<Long, Double> scores = requestMatcher.score(item(100L, 20L, null, "Нужна", "Пила"));
+
+        assertThat(scores.keySet(), empty());
+    }
+
+    @Test
+    void match_whenItemAnswersRequest_thenRequestClosedAndMatchesRecorded() {
+        when(requestMatchRepository.findAllByItemId(100L))
+                .thenReturn(Collections.emptyList());
+
+        requestMatcher.match(item(100L, 20L, 3L, "Дрель", "Ударная дрель"));
+
+        verify(requestMatchRepository).deleteAllByItemId(100L);
+        verify(requestMatchRepository).saveAll(matchesCaptor.capture());
+        assertThat(matchesCaptor.getValue(), hasSize(1));
+        assertThat(matchesCaptor.getValue().get(0).getRequestId(), equalTo(1L));
+        assertThat(requestMatcher.score(item(101L, 20L, null, "Дрель", "")).keySet(), not(hasItem(3L)));
+    }
+
+    @Test
+    void match_whenItemUnavailable_thenPreviousMatchesCleared() {
+        when(requestMatchRepository.findAllByItemId(100L))
+                .thenReturn(List.of(RequestMatch.builder()
+                        .requestId(1L)
+                        .itemId(100L)
+                        .score(1.0)
+                        .created(LocalDateTime.now())
+                        .build()));
+
+        requestMatcher.match(new RequestMatcher.ItemSnapshot(100L, 20L, null, false, RequestMatcher.terms("Дрель")));
+
+        verify(requestMatchRepository).deleteAllByItemId(100L);
+        verify(requestMatchRepository).saveAll(matchesCaptor.capture());
+        assertThat(matchesCaptor.getValue(), empty());
+    }
+
+    @Test
+    void dropOldestPolicy_whenQueueFull_thenOldestTaskDroppedAndCounted() throws InterruptedException {
+        Counter dropped = new SimpleMeterRegistry().counter("dropped");
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1), new RequestMatcher.DropOldestPolicy(dropped));
+        CountDownLatch blocked = new CountDownLatch(1);
+        List<String> completed = new CopyOnWriteArrayList<>();
+        try {
+            pool.execute(() -> {
+                try {
+                    blocked.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            pool.execute(() -> completed.add("oldest"));
+            pool.execute(() -> completed.add("newest"));
+            blocked.countDown();
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(pool.awaitTermination(5, TimeUnit.SECONDS), is(true));
+        assertThat(completed, equalTo(List.of("newest")));
+        assertThat(dropped.count(), closeTo(1.0, 0.001));
+        assertThrows(RejectedExecutionException.class, () -> pool.execute(() -> completed.add("late")));
+    }
+
+    @Test
+    void terms_whenLongWords_thenStemmed() {
+        assertThat(RequestMatcher.terms("Лестница, лестницу! и до"), containsInAnyOrder("лестн"));
+    }
+
+    private static ItemRequest request(long id, long requestorId, String description) {
+        return ItemRequest.builder()
+                .id(id)
+                .description(description)
+                .requestor(User.builder().id(requestorId).build())
+                .created(LocalDateTime.now())
+                .build();
+    }
+
+    private static RequestMatcher.ItemSnapshot item(long id, long ownerId, Long requestId,
+                                                    String name, String description) {
+        return new RequestMatcher.ItemSnapshot(id, ownerId, requestId, true, RequestMatcher.terms(name, description));
+    }
+}
@@ -7,13 +7,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import ru.practicum.shareit.user.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
@@ -22,8 +26,12 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.booking.controller.BookingController.NEXT_CURSOR;
 
 @WebMvcTest(controllers = UserController.class)
 class UserControllerTest {
@@ -124,4 +132,60 @@ class UserControllerTest {
         verify(userService, times(1))
                 .delete(userId);
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void getAll_whenAfterGiven_thenUseKeysetAndReturnNextCursor() {
+        when(userService.findAllAfter(0L, 1))
+                .thenReturn(List.of(userDto));
+
+        mvc.perform(get("/users")
+                        .param("after", "0")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string(NEXT_CURSOR, "1"));
+        verify(userService, never())
+                .findAll();
+    }
+
+    @SneakyThrows
+    @Test
+    void getAll_whenSizeGiven_thenReturnPage() {
+        when(userService.findAll(PageRequest.of(1, 2, Sort.by(Sort.Direction.ASC, "id"))))
+                .thenReturn(List.of(userDto));
+
+        mvc.perform(get("/users")
+                        .param("from", "2")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().doesNotExist(NEXT_CURSOR));
+    }
+
+    @SneakyThrows
+    @Test
+    void streamAll_whenInvoked_thenWriteOneLinePerUser() {
+        UserDto second = UserDto.builder()
+                .id(2L)
+                .name("second")
+                .email("second@mail.com")
+                .build();
+        doAnswer(invocation -> {
+            Consumer<UserDto> action = invocation.getArgument(0);
+            action.accept(userDto);
+            action.accept(second);
+            return null;
+        }).when(userService).streamAll(any());
+
+        MvcResult result = mvc.perform(get("/users/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(UserController.NDJSON_VALUE))
+                .andExpect(content().string(mapper.writeValueAsString(userDto) + "\n"
+                        + mapper.writeValueAsString(second) + "\n"));
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.user.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserRepositoryTest {
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            userRepository.save(User.builder()
+                    .name("User " + i)
+                    .email("user" + i + "@mail.ru")
+                    .build());
+        }
+        ids = userRepository.findAll(Sort.by("id")).stream()
+                .map(User::getId)
+                .collect(Collectors.toList());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findAllBy_whenPaged_thenReturnPageWithoutCountQuery() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<User> users = userRepository.findAllBy(PageRequest.of(1, 2, Sort.by(Sort.Direction.ASC, "id")));
+
+        assertThat(users.stream().map(User::getId).collect(Collectors.toList()), equalTo(ids.subList(2, 4)));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(1L));
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserExistenceCacheTest {
+
+    private static final String MESSAGE = "Пользователь не существует!";
+
+    @Mock
+    private UserRepository userRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private UserExistenceCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UserExistenceCache(userRepository, meterRegistry, 2, 60_000);
+    }
+
+    @Test
+    void verifyQueriesRepositoryOnlyOnce() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        cache.verify(1L, MESSAGE);
+        cache.verify(1L, MESSAGE);
+
+        verify(userRepository, times(1)).existsById(1L);
+        assertEquals(1.0, meterRegistry.get("shareit.users.cache").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("shareit.users.cache").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void verifyCachesMissingUser() {
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        NotFoundException first = assertThrows(NotFoundException.class, () -> cache.verify(1L, MESSAGE));
+        NotFoundException second = assertThrows(NotFoundException.class, () -> cache.verify(1L, MESSAGE));
+
+        assertEquals(MESSAGE, first.getMessage());
+        assertEquals(MESSAGE, second.getMessage());
+        verify(userRepository, times(1)).existsById(1L);
+    }
+
+    @Test
+    void verifyRechecksMissingUserAfterTtl() {
+        cache = new UserExistenceCache(userRepository, meterRegistry, 2, 0);
+        when(userRepository.existsById(1L)).thenReturn(false, true);
+
+        assertThrows(NotFoundException.class, () -> cache.verify(1L, MESSAGE));
+        cache.verify(1L, MESSAGE);
+
+        verify(userRepository, times(2)).existsById(1L);
+    }
+
+    @Test
+    void addReplacesNegativeEntry() {
+        when(userRepository.existsById(1L)).thenReturn(false);
+        assertThrows(NotFoundException.class, () -> cache.verify(1L, MESSAGE));
+
+        cache.add(User.builder().id(1L).build());
+        cache.verify(1L, MESSAGE);
+
+        verify(userRepository, times(1)).existsById(1L);
+    }
+
+    @Test
+    void invalidateForgetsDeletedUser() {
+        when(userRepository.existsById(1L)).thenReturn(true, false);
+        cache.verify(1L, MESSAGE);
+
+        cache.invalidate(1L);
+
+        assertThrows(NotFoundException.class, () -> cache.verify(1L, MESSAGE));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void verifyEvictsLeastRecentlyUsed() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+
+        cache.verify(1L, MESSAGE);
+        cache.verify(2L, MESSAGE);
+        cache.verify(1L, MESSAGE);
+        cache.verify(3L, MESSAGE);
+        cache.verify(2L, MESSAGE);
+
+        assertEquals(2, cache.size());
+        verify(userRepository, times(2)).existsById(2L);
+        verify(userRepository, times(1)).existsById(1L);
+    }
+
+    @Test
+    void referenceReturnsProxyForKnownUser() {
+        User reference = User.builder().id(1L).build();
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(reference);
+
+        assertSame(reference, cache.reference(1L, MESSAGE));
+    }
+}
@@ -4,15 +4,23 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.request.service.ItemRequestFeed;
 import ru.practicum.shareit.user.UserDto;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -22,6 +30,10 @@ class UserServiceImplTest {
 
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private UserExistenceCache userExistenceCache;
+    @Mock
+    private ItemRequestFeed itemRequestFeed;
     @Captor
     private ArgumentCaptor<User> userArgumentCaptor;
     @InjectMocks
@@ -47,6 +59,7 @@ class UserServiceImplTest {
         assertEquals("returnedUserName", userDtoActual.getName());
         verify(userRepository, times(1))
                 .save(UserMapper.INSTANCE.fromDto(userDtoToSave));
+        verify(userExistenceCache).add(returnedUser);
     }
 
     @Test
@@ -118,6 +131,25 @@ class UserServiceImplTest {
         assertEquals("email@mail.com2", capturedUser.getEmail());
     }
 
+    @Test
+    void update_whenSaved_thenRequestFeedGetsNewRequestor() {
+        long userId = 1L;
+        User user = User.builder()
+                .id(userId)
+                .name("name")
+                .email("email@mail.com")
+                .build();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.save(user)).thenReturn(user);
+
+
+        UserDto updatedUser = userServiceImpl.update(userId, UserDto.builder().name("name2").build());
+
+
+        verify(itemRequestFeed).updateRequestor(updatedUser);
+        assertEquals("name2", updatedUser.getName());
+    }
+
     @Test
     void update_whenUserWithEmptyFields_thenUpdateNothing() {
         long userId = 1L;
@@ -152,5 +184,51 @@ class UserServiceImplTest {
 
         verify(userRepository, times(1))
                 .deleteById(userId);
+        verify(userExistenceCache).invalidate(userId);
+        verify(itemRequestFeed).removeRequestor(userId);
+    }
+
+    @Test
+    void findAll_whenPaged_thenQueryWithoutCount() {
+        PageRequest pageable = PageRequest.of(1, 2, Sort.by(Sort.Direction.ASC, "id"));
+        when(userRepository.findAllBy(pageable))
+                .thenReturn(List.of(User.builder().id(3L).name("name").email("email@mail.com").build()));
+
+        List<UserDto> users = userServiceImpl.findAll(pageable);
+
+        assertEquals(1, users.size());
+        assertEquals(3L, users.get(0).getId());
+        verify(userRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void findAllAfter_whenInvoked_thenSeekFromId() {
+        when(userRepository.findAllByIdGreaterThanOrderByIdAsc(5L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(User.builder().id(6L).name("name").email("email@mail.com").build()));
+
+        List<UserDto> users = userServiceImpl.findAllAfter(5L, 2);
+
+        assertEquals(1, users.size());
+        assertEquals(6L, users.get(0).getId());
+    }
+
+    @Test
+    void findAllAfter_whenSizeNotPositive_thenValidationExceptionThrown() {
+        assertThrows(ValidationException.class, () -> userServiceImpl.findAllAfter(5L, 0));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void streamAll_whenInvoked_thenPassEveryUserAndCloseStream() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(userRepository.streamAll())
+                .thenReturn(Stream.of(UserDto.builder().id(1L).build(), UserDto.builder().id(2L).build())
+                        .onClose(() -> closed.set(true)));
+        List<UserDto> received = new ArrayList<>();
+
+        userServiceImpl.streamAll(received::add);
+
+        assertEquals(2, received.size());
+        assertTrue(closed.get());
     }
-}
\ No newline at end of file
+}
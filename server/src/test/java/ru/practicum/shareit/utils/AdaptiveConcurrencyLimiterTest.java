@@ -0,0 +1,86 @@
+package ru.practicum.shareit.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long RTT = 10_000_000;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new AdaptiveConcurrencyLimiter(meterRegistry, 10, 4, 100, 0.2);
+    }
+
+    @Test
+    void tryAcquireShedsRequestsAboveLimit() {
+        for (int i = 1; i <= 10; i++)
+            assertEquals(i, limiter.tryAcquire());
+
+        assertEquals(0, limiter.tryAcquire());
+        assertEquals(10, limiter.getInFlight());
+        assertEquals(10.0, meterRegistry.get("shareit.concurrency.requests").tag("result", "accepted").counter().count());
+        assertEquals(1.0, meterRegistry.get("shareit.concurrency.requests").tag("result", "rejected").counter().count());
+    }
+
+    @Test
+    void releaseFreesSlot() {
+        for (int i = 0; i < 10; i++)
+            limiter.tryAcquire();
+
+        limiter.release(RTT, 10);
+
+        assertEquals(9, limiter.getInFlight());
+        assertTrue(limiter.tryAcquire() > 0);
+    }
+
+    @Test
+    void limitGrowsWhileLatencyIsStable() {
+        for (int i = 0; i < 100; i++)
+            limiter.onSample(RTT, limiter.getLimit());
+
+        assertTrue(limiter.getLimit() > 10);
+    }
+
+    @Test
+    void limitShrinksWhenLatencyRises() {
+        for (int i = 0; i < 100; i++)
+            limiter.onSample(RTT, limiter.getLimit());
+        int steadyLimit = limiter.getLimit();
+
+        for (int i = 0; i < 50; i++)
+            limiter.onSample(RTT * 5, limiter.getLimit());
+
+        assertTrue(limiter.getLimit() < steadyLimit);
+        assertEquals(limiter.getLimit(), (int) meterRegistry.get("shareit.concurrency.limit").gauge().value());
+    }
+
+    @Test
+    void limitDoesNotGrowWhenUnderused() {
+        for (int i = 0; i < 100; i++)
+            limiter.onSample(RTT, 1);
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void limitStaysWithinBounds() {
+        limiter = new AdaptiveConcurrencyLimiter(meterRegistry, 10, 5, 100, 0.2);
+
+        for (int i = 0; i < 1000; i++)
+            limiter.onSample(RTT, limiter.getLimit());
+        assertEquals(100, limiter.getLimit());
+
+        for (int i = 0; i < 100; i++)
+            limiter.onSample(RTT * 100, limiter.getLimit());
+        assertEquals(5, limiter.getLimit());
+    }
+}
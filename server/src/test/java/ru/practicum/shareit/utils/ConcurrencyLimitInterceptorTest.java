@@ -0,0 +1,50 @@
+package ru.practicum.shareit.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimitInterceptorTest {
+
+    private AdaptiveConcurrencyLimiter limiter;
+    private ConcurrencyLimitInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry(), 1, 1, 1, 0.2);
+        interceptor = new ConcurrencyLimitInterceptor(limiter);
+    }
+
+    @Test
+    void preHandleMarksShedResponse() {
+        MockHttpServletResponse admitted = new MockHttpServletResponse();
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), admitted, new Object()));
+
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        assertThrows(ServiceUnavailableException.class,
+                () -> interceptor.preHandle(new MockHttpServletRequest(), shed, new Object()));
+
+        assertNull(admitted.getHeader(ConcurrencyLimitInterceptor.LOAD_SHED_HEADER));
+        assertEquals("true", shed.getHeader(ConcurrencyLimitInterceptor.LOAD_SHED_HEADER));
+    }
+
+    @Test
+    void afterCompletionReleasesSlot() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, new Object());
+
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertEquals(0, limiter.getInFlight());
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), new Object()));
+    }
+}
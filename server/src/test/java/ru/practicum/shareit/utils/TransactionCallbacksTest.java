@@ -0,0 +1,61 @@
+package ru.practicum.shareit.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class TransactionCallbacksTest {
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+            TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void afterCommit_whenNoTransaction_thenRunImmediately() {
+        TransactionCallbacks.afterCommit(runs::incrementAndGet);
+
+        assertThat(runs.get(), equalTo(1));
+    }
+
+    @Test
+    void afterCommit_whenTransactionActive_thenRunOnlyOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        TransactionCallbacks.afterCommit(runs::incrementAndGet);
+        assertThat(runs.get(), equalTo(0));
+
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        assertThat(runs.get(), equalTo(1));
+    }
+
+    @Test
+    void afterRollback_whenNoTransaction_thenNothingRuns() {
+        TransactionCallbacks.afterRollback(runs::incrementAndGet);
+
+        assertThat(runs.get(), equalTo(0));
+    }
+
+    @Test
+    void afterRollback_whenTransactionCompletes_thenRunOnlyIfNotCommitted() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionCallbacks.afterRollback(runs::incrementAndGet);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(runs.get(), equalTo(0));
+
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertThat(runs.get(), equalTo(1));
+    }
+}